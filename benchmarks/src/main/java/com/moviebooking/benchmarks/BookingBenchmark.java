@@ -0,0 +1,119 @@
+package com.moviebooking.benchmarks;
+
+import com.moviebooking.benchmarks.support.H2Backend;
+import com.moviebooking.benchmarks.support.InMemoryRepository;
+import com.moviebooking.benchmarks.support.InMemoryTransactionManager;
+import com.moviebooking.booking.BookingServiceApplication;
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.repository.BookingRepository;
+import com.moviebooking.booking.service.BookingExpiryScheduler;
+import com.moviebooking.booking.service.BookingRollups;
+import com.moviebooking.booking.service.BookingService;
+import com.moviebooking.booking.service.BookingServiceImpl;
+import com.moviebooking.booking.service.ShowtimeSeatsClient;
+import com.moviebooking.common.service.IdGenerator;
+import com.moviebooking.common.service.ReferenceGenerator;
+import com.moviebooking.common.service.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// BookingService.createBooking through the transactional proxy: validation, reference
+// generation, amount calculation and the insert of the booking and its seats
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingBenchmark {
+
+    @Param({"fake", "h2"})
+    public String backend;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = "h2".equals(backend)
+                ? H2Backend.start(BookingServiceApplication.class, "bookings", "booking.id.node-id=0")
+                : new AnnotationConfigApplicationContext(FakeBackend.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Booking createBooking() {
+        return bookingService.createBooking(newBooking(sequence.incrementAndGet()));
+    }
+
+    static Booking newBooking(long n) {
+        Booking booking = new Booking();
+        booking.setMovieId(1 + n % 50);
+        booking.setTheaterId(1 + n % 10);
+        booking.setShowtimeId(1 + n % 500);
+        booking.setCustomerName("Customer " + n);
+        booking.setCustomerEmail("customer" + n + "@example.com");
+        booking.setCustomerPhone("9000000000");
+        booking.setSeatNumbers(List.of("A" + (1 + n % 64), "B" + (1 + n % 64)));
+        booking.setNumberOfSeats(2);
+        booking.setTotalAmount(500.0);
+        booking.setPaymentMethod(Booking.PaymentMethod.UPI);
+        booking.setShowDateTime(LocalDateTime.now().plusDays(7));
+        return booking;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({BookingServiceImpl.class, BookingRollups.class, BookingExpiryScheduler.class, ShowtimeSeatsClient.class})
+    static class FakeBackend {
+
+        @Bean
+        IdGenerator idGenerator() {
+            return new SnowflakeIdGenerator(0);
+        }
+
+        @Bean
+        ReferenceGenerator referenceGenerator(IdGenerator idGenerator) {
+            return new ReferenceGenerator(idGenerator, "BKG");
+        }
+
+        @Bean
+        BookingRepository bookingRepository() {
+            return new InMemoryRepository<>(Booking::getId, Booking::setId).as(BookingRepository.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new InMemoryTransactionManager();
+        }
+    }
+}
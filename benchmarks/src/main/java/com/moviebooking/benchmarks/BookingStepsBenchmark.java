@@ -0,0 +1,70 @@
+package com.moviebooking.benchmarks;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.service.BookingServiceImpl;
+import com.moviebooking.common.service.ReferenceGenerator;
+import com.moviebooking.common.service.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The CPU-only steps of createBooking, called on the bare service with no proxy or
+// repository, as createBooking itself calls them
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingStepsBenchmark {
+
+    private SnowflakeIdGenerator idGenerator;
+    private BookingServiceImpl bookingService;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        idGenerator = new SnowflakeIdGenerator(0);
+        bookingService = new BookingServiceImpl(null, null, null, new ReferenceGenerator(idGenerator, "BKG"));
+        booking = BookingBenchmark.newBooking(1);
+    }
+
+    @Benchmark
+    public long nextId() {
+        return idGenerator.nextId();
+    }
+
+    // All threads share one generator, as all requests on an instance do
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return idGenerator.nextId();
+    }
+
+    @Benchmark
+    public String generateBookingReference() {
+        return bookingService.generateBookingReference();
+    }
+
+    @Benchmark
+    public Double calculateAmounts() {
+        Double total = bookingService.calculateTotalAmount(booking.getSeatNumbers(), 250.0);
+        Double tax = bookingService.calculateTaxAmount(total);
+        return bookingService.calculateFinalAmount(total, tax);
+    }
+
+    @Benchmark
+    public boolean validateBooking() {
+        return bookingService.validateBooking(booking);
+    }
+}
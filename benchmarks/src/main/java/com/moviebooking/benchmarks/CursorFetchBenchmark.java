@@ -0,0 +1,131 @@
+package com.moviebooking.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The statements booking-service's request paths send, on a MySQL connection with and without
+// useCursorFetch: a lookup by id, the first page of a status and an update by id. Each call
+// prepares its statement afresh, as Hibernate does without a statement cache. Needs a MySQL
+// server; the table is created in the given database and dropped afterwards.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CursorFetchBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final String[] STATUSES = {"PENDING", "CONFIRMED", "CANCELLED", "EXPIRED"};
+
+    @Param({"false", "true"})
+    public String useCursorFetch;
+
+    @Param("jdbc:mysql://localhost:3306/moviebooking_benchmarks?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true")
+    public String url;
+
+    @Param("root")
+    public String user;
+
+    @Param("keerthi")
+    public String password;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", user);
+        properties.setProperty("password", password);
+        properties.setProperty("useCursorFetch", useCursorFetch);
+        connection = DriverManager.getConnection(url, properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS cursor_fetch_bench");
+            statement.execute("CREATE TABLE cursor_fetch_bench (id BIGINT PRIMARY KEY, status VARCHAR(20) NOT NULL, "
+                    + "customer_email VARCHAR(255) NOT NULL, booking_date DATETIME(6) NOT NULL, "
+                    + "final_amount DOUBLE NOT NULL, INDEX idx_status_date (status, booking_date, id))");
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO cursor_fetch_bench VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, STATUSES[i % STATUSES.length]);
+                insert.setString(3, "customer" + (i % 500) + "@example.com");
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusMinutes(i)));
+                insert.setDouble(5, 295.0 * (1 + i % 6));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE cursor_fetch_bench");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public double findById() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, status, customer_email, booking_date, final_amount FROM cursor_fetch_bench WHERE id = ?")) {
+            select.setLong(1, 1 + ThreadLocalRandom.current().nextInt(ROWS));
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next() ? rows.getDouble("final_amount") : 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public double findStatusPage() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, status, customer_email, booking_date, final_amount FROM cursor_fetch_bench "
+                        + "WHERE status = ? ORDER BY booking_date DESC, id DESC LIMIT 20")) {
+            select.setString(1, STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)]);
+            double total = 0;
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    total += rows.getDouble("final_amount");
+                }
+            }
+            return total;
+        }
+    }
+
+    @Benchmark
+    public int updateById() throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE cursor_fetch_bench SET final_amount = ? WHERE id = ?")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            update.setDouble(1, 295.0 * (1 + random.nextInt(6)));
+            update.setLong(2, 1 + random.nextInt(ROWS));
+            return update.executeUpdate();
+        }
+    }
+}
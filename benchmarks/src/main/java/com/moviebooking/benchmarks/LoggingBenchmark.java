@@ -0,0 +1,87 @@
+package com.moviebooking.benchmarks;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import com.moviebooking.ticket.service.TicketService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a hot read, TicketService.getOccupiedSeats, under each logging setup in
+// src/main/resources/logging: per-call is the services' old synchronous logging, async moves
+// the writes to a worker thread, sampled adds the SampledLogFilter the services now run with,
+// and sampled-json writes the prod profile's JSON lines. Events go to a temporary file rather
+// than the console, so the numbers include the write without flooding the JMH output.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    @Param({"per-call", "async", "sampled", "sampled-json"})
+    public String logging;
+
+    private AnnotationConfigApplicationContext context;
+    private TicketService ticketService;
+    private Path logFile;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, JoranException {
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+        loggerContext.putProperty("LOG_FILE", logFile.toString());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(loggerContext);
+        configurator.doConfigure(getClass().getResource("/logging/" + logging + ".xml"));
+
+        context = new AnnotationConfigApplicationContext(TicketBenchmark.FakeBackend.class);
+        ticketService = context.getBean(TicketService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        try {
+            Files.deleteIfExists(logFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public List<String> getOccupiedSeats() {
+        return ticketService.getOccupiedSeats(1L);
+    }
+
+    // Synchronous appenders serialize every caller on the appender lock
+    @Benchmark
+    @Threads(4)
+    public List<String> getOccupiedSeatsConcurrently() {
+        return ticketService.getOccupiedSeats(1L);
+    }
+}
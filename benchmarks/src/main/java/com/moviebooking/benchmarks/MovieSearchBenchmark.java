@@ -0,0 +1,147 @@
+package com.moviebooking.benchmarks;
+
+import com.moviebooking.benchmarks.support.H2Backend;
+import com.moviebooking.benchmarks.support.InMemoryRepository;
+import com.moviebooking.benchmarks.support.InMemoryTransactionManager;
+import com.moviebooking.movies.MoviesServiceApplication;
+import com.moviebooking.movies.entity.Movie;
+import com.moviebooking.movies.repository.MovieRepository;
+import com.moviebooking.movies.service.BookingCountsClient;
+import com.moviebooking.movies.service.MovieAutocompleteIndex;
+import com.moviebooking.movies.service.MovieSearchIndex;
+import com.moviebooking.movies.service.MovieService;
+import com.moviebooking.movies.service.MovieServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// MovieService.searchMoviesByTitle over a catalog of generated titles: the ranked lookup in
+// the search index, which also holds the movies it returns
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovieSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "star", "dark", "knight", "love", "war", "night", "return", "lost", "city", "dream",
+        "storm", "shadow", "empire", "last", "secret", "ocean", "fire", "ice", "silent", "journey"
+    };
+
+    @Param({"fake", "h2"})
+    public String backend;
+
+    @Param({"2000"})
+    public int movies;
+
+    // One word, two words, and a short prefix as typed into a search box
+    @Param({"star", "dark knight", "s"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private MovieService movieService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<Movie> catalog = catalog(movies);
+        if ("h2".equals(backend)) {
+            context = H2Backend.start(MoviesServiceApplication.class, "movies");
+            movieService = context.getBean(MovieService.class);
+            // Through the service, so the search index picks them up after commit
+            catalog.forEach(movieService::createMovie);
+        } else {
+            AnnotationConfigApplicationContext fake = new AnnotationConfigApplicationContext();
+            fake.registerBean(MovieRepository.class, () -> FakeBackend.movieRepository(catalog));
+            fake.register(FakeBackend.class);
+            fake.refresh();
+            context = fake;
+            // Nothing publishes ApplicationReadyEvent outside Spring Boot
+            context.getBean(MovieSearchIndex.class).load();
+            movieService = context.getBean(MovieService.class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Movie> searchMoviesByTitle() {
+        return movieService.searchMoviesByTitle(query);
+    }
+
+    private static List<Movie> catalog(int size) {
+        Random random = new Random(42);
+        List<Movie> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                title.append(w == 0 ? "" : " ").append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            Movie movie = new Movie();
+            movie.setTitle(title.toString());
+            movie.setGenre(i % 2 == 0 ? "Action" : "Drama");
+            movie.setDuration(90 + random.nextInt(90));
+            movie.setLanguage(i % 3 == 0 ? "Hindi" : "English");
+            movie.setDirector("Director " + random.nextInt(200));
+            movie.setCast(List.of("Actor " + random.nextInt(500), "Actor " + random.nextInt(500)));
+            movie.setReleaseDate(LocalDateTime.now().minusDays(random.nextInt(3650)));
+            movie.setRating(Movie.Rating.UA);
+            movie.setIsActive(true);
+            catalog.add(movie);
+        }
+        return catalog;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({MovieServiceImpl.class, MovieSearchIndex.class, MovieAutocompleteIndex.class, BookingCountsClient.class})
+    static class FakeBackend {
+
+        static MovieRepository movieRepository(List<Movie> catalog) {
+            InMemoryRepository<Movie> movies = new InMemoryRepository<>(Movie::getId, Movie::setId).seed(catalog);
+            return movies.on("findAllActiveWithCast", args -> new ArrayList<>(movies.entities()))
+                    .as(MovieRepository.class);
+        }
+
+        // Never called: the popularity refresh is a scheduled task, and nothing is scheduled here
+        @Bean
+        RestTemplate bookingServiceRestTemplate() {
+            return new RestTemplate();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new InMemoryTransactionManager();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.moviebooking.benchmarks;
+
+import com.moviebooking.benchmarks.support.H2Backend;
+import com.moviebooking.benchmarks.support.InMemoryRepository;
+import com.moviebooking.benchmarks.support.InMemoryTransactionManager;
+import com.moviebooking.showtime.ShowtimeServiceApplication;
+import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.enums.ShowStatus;
+import com.moviebooking.showtime.repository.ShowtimeRepository;
+import com.moviebooking.showtime.service.ScreenScheduleIndex;
+import com.moviebooking.showtime.service.SeatCounterRegistry;
+import com.moviebooking.showtime.service.ShowtimeService;
+import com.moviebooking.showtime.service.ShowtimeServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ShowtimeService.reserveSeats followed by releaseSeats, so the showtime never sells out.
+// Both only touch the in-memory seat counter; with H2 the counter is also flushed to the
+// row in the background, as in production.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShowtimeBenchmark {
+
+    private static final int SEATS = 2;
+
+    @Param({"fake", "h2"})
+    public String backend;
+
+    private ConfigurableApplicationContext context;
+    private ShowtimeService showtimeService;
+    private Long showtimeId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        if ("h2".equals(backend)) {
+            context = H2Backend.start(ShowtimeServiceApplication.class, "showtimes");
+            showtimeId = context.getBean(ShowtimeRepository.class).save(newShowtime()).getId();
+        } else {
+            context = new AnnotationConfigApplicationContext(FakeBackend.class);
+            showtimeId = FakeBackend.SHOWTIME_ID;
+        }
+        showtimeService = context.getBean(ShowtimeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean reserveAndReleaseSeats() {
+        showtimeService.reserveSeats(showtimeId, SEATS);
+        return showtimeService.releaseSeats(showtimeId, SEATS);
+    }
+
+    // Every thread books the same showtime, as happens when a popular show opens
+    @Benchmark
+    @Threads(4)
+    public boolean reserveAndReleaseSeatsContended() {
+        showtimeService.reserveSeats(showtimeId, SEATS);
+        return showtimeService.releaseSeats(showtimeId, SEATS);
+    }
+
+    static Showtime newShowtime() {
+        Showtime showtime = new Showtime();
+        showtime.setMovieId(1L);
+        showtime.setTheaterId(1L);
+        showtime.setScreenNumber("1");
+        showtime.setStartTime(LocalDateTime.now().plusDays(7));
+        showtime.setEndTime(LocalDateTime.now().plusDays(7).plusHours(3));
+        showtime.setTotalSeats(10_000);
+        showtime.setAvailableSeats(10_000);
+        showtime.setPrice(250.0);
+        showtime.setShowType(Showtime.ShowType.REGULAR_2D);
+        showtime.setStatus(ShowStatus.ACTIVE);
+        return showtime;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({ShowtimeServiceImpl.class, SeatCounterRegistry.class, ScreenScheduleIndex.class})
+    static class FakeBackend {
+
+        static final Long SHOWTIME_ID = 1L;
+
+        @Bean
+        ShowtimeRepository showtimeRepository() {
+            Showtime showtime = newShowtime();
+            showtime.setId(SHOWTIME_ID);
+            return new InMemoryRepository<>(Showtime::getId, Showtime::setId)
+                    .seed(List.of(showtime))
+                    .on("updateSeatCount", args -> 1)
+                    .as(ShowtimeRepository.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new InMemoryTransactionManager();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.moviebooking.benchmarks;
+
+import com.moviebooking.benchmarks.support.H2Backend;
+import com.moviebooking.benchmarks.support.InMemoryRepository;
+import com.moviebooking.benchmarks.support.InMemoryTransactionManager;
+import com.moviebooking.common.service.IdGenerator;
+import com.moviebooking.common.service.ReferenceGenerator;
+import com.moviebooking.common.service.SnowflakeIdGenerator;
+import com.moviebooking.ticket.TicketServiceApplication;
+import com.moviebooking.ticket.config.TimingWheelConfig;
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.repository.TicketRepository;
+import com.moviebooking.ticket.service.SeatHoldServiceImpl;
+import com.moviebooking.ticket.service.SeatIndexCodec;
+import com.moviebooking.ticket.service.SeatInventory;
+import com.moviebooking.ticket.service.SeatLockManager;
+import com.moviebooking.ticket.service.TicketExpiryScheduler;
+import com.moviebooking.ticket.service.TicketSalesSeries;
+import com.moviebooking.ticket.service.TicketService;
+import com.moviebooking.ticket.service.TicketServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// TicketService.createMultipleTickets for an order of four seats: seat locks, the seat map
+// check, ticket numbers, QR codes and barcodes, and the batch insert. Every order takes
+// free seats, filling rows A to Z of a showtime before moving on to the next one. On h2 the
+// tickets table is emptied after every iteration: left to grow, it takes hundreds of MB of
+// heap within a couple of minutes, and the full collections it causes swamp the insert cost.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketBenchmark {
+
+    private static final int SEATS_PER_ORDER = 4;
+    private static final int ORDERS_PER_SHOWTIME = 26 * SeatIndexCodec.SEATS_PER_ROW / SEATS_PER_ORDER;
+
+    @Param({"fake", "h2"})
+    public String backend;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private final AtomicLong orders = new AtomicLong();
+    private final LocalDateTime showDateTime = LocalDateTime.now().plusDays(7);
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = "h2".equals(backend)
+                ? H2Backend.start(TicketServiceApplication.class, "tickets", "ticket.id.node-id=0")
+                : new AnnotationConfigApplicationContext(FakeBackend.class);
+        ticketService = context.getBean(TicketService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTickets() {
+        if ("h2".equals(backend)) {
+            context.getBean(TicketRepository.class).deleteAllInBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Ticket> createMultipleTickets() {
+        return ticketService.createMultipleTickets(newOrder(orders.getAndIncrement()));
+    }
+
+    // Orders on different showtimes only share lock stripes by chance
+    @Benchmark
+    @Threads(4)
+    public List<Ticket> createMultipleTicketsConcurrently() {
+        return ticketService.createMultipleTickets(newOrder(orders.getAndIncrement()));
+    }
+
+    private List<Ticket> newOrder(long order) {
+        long showtimeId = 1 + order / ORDERS_PER_SHOWTIME;
+        int firstSeat = (int) (order % ORDERS_PER_SHOWTIME) * SEATS_PER_ORDER;
+        List<Ticket> tickets = new ArrayList<>(SEATS_PER_ORDER);
+        for (int i = 0; i < SEATS_PER_ORDER; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setBookingId(order + 1);
+            ticket.setShowtimeId(showtimeId);
+            ticket.setMovieId(1 + showtimeId % 50);
+            ticket.setTheaterId(1 + showtimeId % 10);
+            ticket.setSeatNumber(SeatIndexCodec.decode(firstSeat + i));
+            ticket.setSeatType(Ticket.SeatType.REGULAR);
+            ticket.setPrice(250.0);
+            ticket.setCustomerName("Customer " + order);
+            ticket.setCustomerEmail("customer" + order + "@example.com");
+            ticket.setCustomerPhone("9000000000");
+            ticket.setShowDateTime(showDateTime);
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({TicketServiceImpl.class, SeatInventory.class, SeatLockManager.class, SeatHoldServiceImpl.class,
+            TicketSalesSeries.class, TicketExpiryScheduler.class, TimingWheelConfig.class})
+    static class FakeBackend {
+
+        @Bean
+        IdGenerator idGenerator() {
+            return new SnowflakeIdGenerator(0);
+        }
+
+        @Bean
+        ReferenceGenerator referenceGenerator(IdGenerator idGenerator) {
+            return new ReferenceGenerator(idGenerator, "TKT");
+        }
+
+        @Bean
+        TicketRepository ticketRepository() {
+            // Every showtime starts out empty
+            return new InMemoryRepository<>(Ticket::getId, Ticket::setId)
+                    .on("findOccupiedSeatNumbers", args -> List.of())
+                    .as(TicketRepository.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new InMemoryTransactionManager();
+        }
+    }
+}
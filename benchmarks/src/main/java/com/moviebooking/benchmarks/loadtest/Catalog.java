@@ -0,0 +1,94 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.moviebooking.movies.entity.Movie;
+import com.moviebooking.showtime.entity.Showtime;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// The fixture as created in the services, through their own endpoints, with the ids they
+// handed out. Journeys draw a movie from it by demand and look showtimes up by id to learn
+// the seat layout.
+final class Catalog {
+
+    final List<SeededMovie> movies = new ArrayList<>();
+    final Map<Long, SeededShowtime> showtimes = new HashMap<>();
+    private final int totalDemand;
+
+    record SeededMovie(long id, String title, String searchTerm, int demand) {
+    }
+
+    record SeededShowtime(long id, long movieId, long theaterId, LocalDateTime startTime, Fixture.Showtime layout) {
+    }
+
+    private Catalog(Fixture fixture, LoadClient client, ServiceCluster cluster) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        int demand = 0;
+        for (Fixture.Movie fixtureMovie : fixture.movies()) {
+            Movie movie = new Movie();
+            movie.setTitle(fixtureMovie.title());
+            movie.setGenre(fixtureMovie.genre());
+            movie.setLanguage(fixtureMovie.language());
+            movie.setDirector(fixtureMovie.director());
+            movie.setDuration(fixtureMovie.duration());
+            movie.setRating(Movie.Rating.valueOf(fixtureMovie.rating()));
+            movie.setReleaseDate(now.minusDays(1));
+            long movieId = created(client.post(Step.SETUP, cluster.movies, movie, null), "movie " + fixtureMovie.title());
+            // Customers type the first word of a title into search
+            movies.add(new SeededMovie(movieId, fixtureMovie.title(), fixtureMovie.title().split("\\s+")[0],
+                    fixtureMovie.demand()));
+            demand += fixtureMovie.demand();
+
+            for (Fixture.Showtime layout : fixtureMovie.showtimes()) {
+                if (layout.totalSeats() > 26 * (layout.seatsPerRow() > 0 ? layout.seatsPerRow() : 16)) {
+                    throw new IllegalArgumentException("Showtime of " + fixtureMovie.title() + " has more seats than rows A to Z hold");
+                }
+                Showtime showtime = new Showtime();
+                showtime.setMovieId(movieId);
+                showtime.setTheaterId(layout.theaterId());
+                showtime.setScreenNumber(layout.screenNumber());
+                showtime.setStartTime(now.plusHours(layout.startsInHours()));
+                showtime.setEndTime(showtime.getStartTime().plusMinutes(fixtureMovie.duration()));
+                showtime.setTotalSeats(layout.totalSeats());
+                showtime.setAvailableSeats(layout.totalSeats());
+                showtime.setPrice(layout.price());
+                showtime.setShowType(Showtime.ShowType.valueOf(layout.showType()));
+                long showtimeId = created(client.post(Step.SETUP, cluster.showtimes, showtime, null),
+                        "showtime of " + fixtureMovie.title());
+                showtimes.put(showtimeId, new SeededShowtime(showtimeId, movieId, layout.theaterId(),
+                        showtime.getStartTime(), layout));
+            }
+        }
+        if (demand <= 0) {
+            throw new IllegalArgumentException("Fixture movies need a positive total demand");
+        }
+        this.totalDemand = demand;
+    }
+
+    static Catalog seed(Fixture fixture, LoadClient client, ServiceCluster cluster) {
+        return new Catalog(fixture, client, cluster);
+    }
+
+    SeededMovie pickMovie(Random random) {
+        int ticket = random.nextInt(totalDemand);
+        for (SeededMovie movie : movies) {
+            ticket -= movie.demand();
+            if (ticket < 0) {
+                return movie;
+            }
+        }
+        return movies.get(movies.size() - 1);
+    }
+
+    private static long created(LoadClient.Response response, String what) {
+        if (!response.ok()) {
+            throw new IllegalStateException("Failed to create " + what + ": HTTP " + response.status() + " " + response.body());
+        }
+        return response.body().get("id").asLong();
+    }
+}
@@ -0,0 +1,68 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// The catalog a load test seeds, read from JSON lines: one movie per line with its showtimes.
+// demand weighs how often browsing customers pick the movie, so one blockbuster can draw most
+// of the traffic while the rest of the catalog stays quiet.
+record Fixture(List<Movie> movies) {
+
+    record Movie(
+            String title,
+            String genre,
+            String language,
+            String director,
+            int duration,
+            String rating,
+            int demand,
+            List<Showtime> showtimes) {
+    }
+
+    // Seats are labelled row by row, A1 to A<seatsPerRow>, then B1 and so on
+    record Showtime(
+            long theaterId,
+            String screenNumber,
+            int startsInHours,
+            int totalSeats,
+            int seatsPerRow,
+            double price,
+            String showType) {
+
+        String seatLabel(int seat) {
+            int perRow = seatsPerRow > 0 ? seatsPerRow : 16;
+            return String.valueOf((char) ('A' + seat / perRow)) + (seat % perRow + 1);
+        }
+    }
+
+    static Fixture load(String location) {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        Resource resource = new DefaultResourceLoader().getResource(location.contains(":") ? location : "file:" + location);
+        List<Movie> movies = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    movies.add(mapper.readValue(line, Movie.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixture " + location, e);
+        }
+        if (movies.isEmpty()) {
+            throw new IllegalArgumentException("Fixture " + location + " has no movies");
+        }
+        return new Fixture(movies);
+    }
+}
@@ -0,0 +1,196 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.ticket.dto.SeatHoldRequest;
+import com.moviebooking.ticket.entity.Ticket;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// One customer going through the funnel: search for a movie, list its showtimes, look at the
+// seat map and hold seats, reserve them on the showtime, book, have tickets issued from the
+// hold and pay. A customer who loses the seats they picked looks at the map again, up to
+// HOLD_ATTEMPTS times, before giving up on the show as sold out.
+final class Journey {
+
+    enum Outcome {
+        CONFIRMED, SOLD_OUT, FAILED
+    }
+
+    private static final int HOLD_ATTEMPTS = 3;
+
+    private final long number;
+    private final Random random;
+    private final Catalog catalog;
+    private final LoadClient client;
+    private final ServiceCluster cluster;
+    private final int maxSeatsPerOrder;
+
+    Journey(long number, long seed, Catalog catalog, LoadClient client, ServiceCluster cluster, int maxSeatsPerOrder) {
+        this.number = number;
+        this.random = new Random(seed + number);
+        this.catalog = catalog;
+        this.client = client;
+        this.cluster = cluster;
+        this.maxSeatsPerOrder = maxSeatsPerOrder;
+    }
+
+    Outcome run() {
+        Catalog.SeededMovie wanted = catalog.pickMovie(random);
+        LoadClient.Response search = client.get(Step.BROWSE,
+                cluster.movies + "/search?title=" + URLEncoder.encode(wanted.searchTerm(), StandardCharsets.UTF_8));
+        if (!search.ok()) {
+            return Outcome.FAILED;
+        }
+        long movieId = -1;
+        for (JsonNode movie : search.body()) {
+            if (movie.path("id").asLong() == wanted.id()) {
+                movieId = wanted.id();
+                break;
+            }
+        }
+        if (movieId < 0) {
+            return Outcome.FAILED;
+        }
+
+        LoadClient.Response listing = client.get(Step.SHOWTIMES, cluster.showtimes + "/movie/" + movieId + "/summary");
+        if (!listing.ok()) {
+            return Outcome.FAILED;
+        }
+        List<Catalog.SeededShowtime> open = new ArrayList<>();
+        for (JsonNode summary : listing.body()) {
+            Catalog.SeededShowtime showtime = catalog.showtimes.get(summary.path("id").asLong());
+            if (showtime != null && summary.path("availableSeats").asInt() > 0) {
+                open.add(showtime);
+            }
+        }
+        if (open.isEmpty()) {
+            return Outcome.SOLD_OUT;
+        }
+        Catalog.SeededShowtime showtime = open.get(random.nextInt(open.size()));
+        int seats = 1 + random.nextInt(maxSeatsPerOrder);
+        String email = "customer" + number + "@example.com";
+
+        String holdId = null;
+        List<String> seatNumbers = null;
+        for (int attempt = 0; attempt < HOLD_ATTEMPTS && holdId == null; attempt++) {
+            Set<String> taken = takenSeats(showtime);
+            if (taken == null) {
+                return Outcome.FAILED;
+            }
+            seatNumbers = pickSeats(showtime, taken, seats);
+            if (seatNumbers == null) {
+                return Outcome.SOLD_OUT;
+            }
+            LoadClient.Response hold = client.post(Step.HOLD, cluster.tickets + "/holds",
+                    new SeatHoldRequest(showtime.id(), seatNumbers, email), null);
+            if (hold.ok()) {
+                holdId = hold.body().path("holdId").asText();
+            } else if (!hold.rejected()) {
+                return Outcome.FAILED;
+            }
+        }
+        if (holdId == null) {
+            return Outcome.SOLD_OUT;
+        }
+
+        LoadClient.Response reserve = client.patch(Step.RESERVE,
+                cluster.showtimes + "/" + showtime.id() + "/reserve-seats?seats=" + seats);
+        if (!reserve.ok()) {
+            client.delete(Step.RELEASE, cluster.tickets + "/holds/" + holdId);
+            return reserve.rejected() ? Outcome.SOLD_OUT : Outcome.FAILED;
+        }
+
+        LoadClient.Response booking = client.post(Step.BOOK, cluster.bookings,
+                newBooking(showtime, seatNumbers, email), "booking-" + number);
+        if (!booking.ok()) {
+            client.patch(Step.RELEASE, cluster.showtimes + "/" + showtime.id() + "/release-seats?seats=" + seats);
+            client.delete(Step.RELEASE, cluster.tickets + "/holds/" + holdId);
+            return Outcome.FAILED;
+        }
+        long bookingId = booking.body().path("id").asLong();
+
+        // A booking without tickets stays pending; the payment window expiry hands its seats back
+        LoadClient.Response tickets = client.post(Step.ISSUE_TICKETS, cluster.tickets + "/bulk?holdId=" + holdId,
+                newTickets(showtime, seatNumbers, bookingId, email), "tickets-" + number);
+        if (!tickets.ok()) {
+            client.delete(Step.RELEASE, cluster.tickets + "/holds/" + holdId);
+            return Outcome.FAILED;
+        }
+
+        LoadClient.Response confirm = client.patch(Step.CONFIRM,
+                cluster.bookings + "/" + bookingId + "/confirm?paymentId=PAY-" + number);
+        return confirm.ok() ? Outcome.CONFIRMED : Outcome.FAILED;
+    }
+
+    // Sold and held seats as the seat map shows them, or null when it cannot be loaded
+    private Set<String> takenSeats(Catalog.SeededShowtime showtime) {
+        LoadClient.Response occupied = client.get(Step.SEAT_MAP,
+                cluster.tickets + "/showtime/" + showtime.id() + "/occupied-seats");
+        LoadClient.Response held = client.get(Step.SEAT_MAP, cluster.tickets + "/holds/showtime/" + showtime.id() + "/seats");
+        if (!occupied.ok() || !held.ok()) {
+            return null;
+        }
+        Set<String> taken = new HashSet<>();
+        occupied.body().forEach(seat -> taken.add(seat.asText()));
+        held.body().forEach(seat -> taken.add(seat.asText()));
+        return taken;
+    }
+
+    // Free seats from a random spot onwards, adjacent where the map allows, or null when
+    // fewer than count are left
+    private List<String> pickSeats(Catalog.SeededShowtime showtime, Set<String> taken, int count) {
+        int total = showtime.layout().totalSeats();
+        int start = random.nextInt(total);
+        List<String> picked = new ArrayList<>(count);
+        for (int i = 0; i < total && picked.size() < count; i++) {
+            String label = showtime.layout().seatLabel((start + i) % total);
+            if (!taken.contains(label)) {
+                picked.add(label);
+            }
+        }
+        return picked.size() == count ? picked : null;
+    }
+
+    private Booking newBooking(Catalog.SeededShowtime showtime, List<String> seatNumbers, String email) {
+        Booking booking = new Booking();
+        booking.setMovieId(showtime.movieId());
+        booking.setTheaterId(showtime.theaterId());
+        booking.setShowtimeId(showtime.id());
+        booking.setCustomerName("Customer " + number);
+        booking.setCustomerEmail(email);
+        booking.setCustomerPhone("9000000000");
+        booking.setSeatNumbers(seatNumbers);
+        booking.setNumberOfSeats(seatNumbers.size());
+        booking.setTotalAmount(showtime.layout().price() * seatNumbers.size());
+        booking.setPaymentMethod(Booking.PaymentMethod.UPI);
+        booking.setShowDateTime(showtime.startTime());
+        return booking;
+    }
+
+    private List<Ticket> newTickets(Catalog.SeededShowtime showtime, List<String> seatNumbers, long bookingId, String email) {
+        List<Ticket> tickets = new ArrayList<>(seatNumbers.size());
+        for (String seatNumber : seatNumbers) {
+            Ticket ticket = new Ticket();
+            ticket.setBookingId(bookingId);
+            ticket.setShowtimeId(showtime.id());
+            ticket.setMovieId(showtime.movieId());
+            ticket.setTheaterId(showtime.theaterId());
+            ticket.setSeatNumber(seatNumber);
+            ticket.setSeatType(Ticket.SeatType.REGULAR);
+            ticket.setPrice(showtime.layout().price());
+            ticket.setCustomerName("Customer " + number);
+            ticket.setCustomerEmail(email);
+            ticket.setCustomerPhone("9000000000");
+            ticket.setShowDateTime(showtime.startTime());
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+}
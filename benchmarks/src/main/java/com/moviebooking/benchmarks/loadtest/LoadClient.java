@@ -0,0 +1,141 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+// HTTP to the services, timing every request against the funnel step it belongs to. A 4xx
+// counts as rejected, the answer a customer gets for a seat someone else took; a 5xx,
+// timeout or connection failure counts as an error.
+final class LoadClient {
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final Map<Step, StepStats> stats = new EnumMap<>(Step.class);
+    private volatile boolean recording;
+
+    LoadClient(ExecutorService executor) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+        for (Step step : Step.values()) {
+            stats.put(step, new StepStats());
+        }
+    }
+
+    // Requests made before this only warm the services up
+    void startRecording() {
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    StepStats stats(Step step) {
+        return stats.get(step);
+    }
+
+    Response get(Step step, String url) {
+        return send(step, HttpRequest.newBuilder(URI.create(url)).GET());
+    }
+
+    Response post(Step step, String url, Object body, String idempotencyKey) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        return send(step, request);
+    }
+
+    Response patch(Step step, String url) {
+        return send(step, HttpRequest.newBuilder(URI.create(url)).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    Response delete(Step step, String url) {
+        return send(step, HttpRequest.newBuilder(URI.create(url)).DELETE());
+    }
+
+    private Response send(Step step, HttpRequest.Builder request) {
+        boolean recorded = recording;
+        StepStats stepStats = stats.get(step);
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            if (recorded) {
+                stepStats.error(System.nanoTime() - start);
+            }
+            return new Response(-1, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, MissingNode.getInstance());
+        }
+        long elapsed = System.nanoTime() - start;
+        int status = response.statusCode();
+        if (recorded) {
+            if (status >= 500) {
+                stepStats.error(elapsed);
+            } else if (status >= 400) {
+                stepStats.rejected(elapsed);
+            } else {
+                stepStats.ok(elapsed);
+            }
+        }
+        return new Response(status, parse(response.body()));
+    }
+
+    private static String json(Object body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    // Some endpoints answer in plain text; those bodies are not needed
+    private static JsonNode parse(String body) {
+        if (body == null || body.isEmpty()) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        boolean rejected() {
+            return status >= 400 && status < 500;
+        }
+    }
+}
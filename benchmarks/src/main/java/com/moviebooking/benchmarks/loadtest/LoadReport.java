@@ -0,0 +1,78 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// What a run measured: journeys by outcome, throughput, latency per funnel step and for
+// whole journeys, and the oversell audit. Journey latency runs from the moment the journey
+// was due to start, so time spent waiting for a worker counts against the services too.
+final class LoadReport {
+
+    private final LoadTestOptions options;
+    private final Map<Journey.Outcome, Long> outcomes;
+    private final long dropped;
+    private final double elapsedSeconds;
+    private final LatencyHistogram journeys;
+    private final Map<Step, StepStats> steps = new EnumMap<>(Step.class);
+    private final List<OversellAudit.ShowtimeAudit> oversell;
+
+    LoadReport(LoadTestOptions options, Map<Journey.Outcome, Long> outcomes, long dropped, double elapsedSeconds,
+               LatencyHistogram journeys, LoadClient client, List<OversellAudit.ShowtimeAudit> oversell) {
+        this.options = options;
+        this.outcomes = outcomes;
+        this.dropped = dropped;
+        this.elapsedSeconds = elapsedSeconds;
+        this.journeys = journeys;
+        for (Step step : Step.values()) {
+            if (step != Step.SETUP) {
+                steps.put(step, client.stats(step));
+            }
+        }
+        this.oversell = oversell;
+    }
+
+    int oversoldSeats() {
+        return oversell.stream().mapToInt(OversellAudit.ShowtimeAudit::oversold).sum();
+    }
+
+    void print(PrintStream out) {
+        long started = outcomes.values().stream().mapToLong(Long::longValue).sum();
+        long requests = steps.values().stream().mapToLong(stats -> stats.latency.count()).sum();
+        long errors = steps.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+
+        out.printf("%nOn-sale load test: %.1f journeys/s for %ds after %ds of warmup, up to %d seats per order%n",
+                options.rate(), options.duration().toSeconds(), options.warmup().toSeconds(), options.maxSeatsPerOrder());
+        out.printf("Journeys:   %d started, %d confirmed, %d sold out, %d failed, %d dropped at %d in flight%n",
+                started, outcomes.get(Journey.Outcome.CONFIRMED), outcomes.get(Journey.Outcome.SOLD_OUT),
+                outcomes.get(Journey.Outcome.FAILED), dropped, options.maxInFlight());
+        out.printf("Throughput: %.1f journeys/s, %.1f requests/s, %d server errors or timeouts over %.1fs%n",
+                started / elapsedSeconds, requests / elapsedSeconds, errors, elapsedSeconds);
+
+        out.printf("%n%-14s %9s %9s %7s %10s %10s %10s %10s%n",
+                "Step", "ok", "rejected", "errors", "mean ms", "p50 ms", "p99 ms", "p99.9 ms");
+        steps.forEach((step, stats) -> {
+            if (stats.latency.count() > 0) {
+                out.printf("%-14s %9d %9d %7d %s%n", step, stats.ok.sum(), stats.rejected.sum(), stats.errors.sum(),
+                        latencies(stats.latency));
+            }
+        });
+        out.printf("%-14s %9s %9s %7s %s%n", "JOURNEY", "", "", "", latencies(journeys));
+
+        out.printf("%n%-9s %-22s %8s %8s %11s %13s %8s %13s%n",
+                "Showtime", "Movie", "capacity", "tickets", "double-sold", "over capacity", "booked", "over capacity");
+        for (OversellAudit.ShowtimeAudit audit : oversell) {
+            out.printf("%-9d %-22.22s %8d %8d %11d %13d %8d %13d%n", audit.showtimeId(), audit.title(),
+                    audit.capacity(), audit.tickets(), audit.doubleSold(), audit.ticketsOverCapacity(),
+                    audit.bookedSeats(), audit.bookingsOverCapacity());
+        }
+        out.printf("Oversold seats: %d%n", oversoldSeats());
+    }
+
+    private static String latencies(LatencyHistogram histogram) {
+        return String.format("%10.2f %10.2f %10.2f %10.2f", histogram.meanMicros() / 1000.0,
+                histogram.percentileMicros(50) / 1000.0, histogram.percentileMicros(99) / 1000.0,
+                histogram.percentileMicros(99.9) / 1000.0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line of OnSaleLoadTest, as --name=value pairs. rate is journeys started per
+// second; every journey makes about six requests when it gets all the way to confirmation.
+record LoadTestOptions(
+        double rate,
+        Duration duration,
+        Duration warmup,
+        int maxInFlight,
+        int maxSeatsPerOrder,
+        String fixture,
+        long seed) {
+
+    static final String DEFAULT_FIXTURE = "classpath:loadtest/opening-night.jsonl";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Double.parseDouble(values.getOrDefault("rate", "50")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Integer.parseInt(values.getOrDefault("max-seats", "4")),
+                values.getOrDefault("fixture", DEFAULT_FIXTURE),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+        values.keySet().removeAll(List.of(
+                "rate", "duration", "warmup", "max-in-flight", "max-seats", "fixture", "seed"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate <= 0 || options.maxInFlight < 1 || options.maxSeatsPerOrder < 1) {
+            throw new IllegalArgumentException("rate, max-in-flight and max-seats must be positive");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,112 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Opening-night rush against all four services in this JVM, each on an embedded H2 database.
+// Seeds the fixture catalog, then starts customer journeys at a fixed rate whether or not
+// earlier ones have finished, the way an on-sale crowd arrives, and prints throughput,
+// latency percentiles and an oversell audit. Exits with 1 when any seat was oversold.
+public final class OnSaleLoadTest {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private OnSaleLoadTest() {
+    }
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Fixture fixture = Fixture.load(options.fixture());
+        ExecutorService workers = newWorkers();
+        int oversold;
+        try (ServiceCluster cluster = new ServiceCluster()) {
+            LoadClient client = new LoadClient(workers);
+            Catalog catalog = Catalog.seed(fixture, client, cluster);
+            LoadReport report = run(options, catalog, client, cluster, workers);
+            report.print(System.out);
+            oversold = report.oversoldSeats();
+        } finally {
+            workers.shutdownNow();
+        }
+        System.exit(oversold > 0 ? 1 : 0);
+    }
+
+    private static LoadReport run(LoadTestOptions options, Catalog catalog, LoadClient client,
+                                  ServiceCluster cluster, ExecutorService workers) {
+        Map<Journey.Outcome, LongAdder> outcomes = new EnumMap<>(Journey.Outcome.class);
+        for (Journey.Outcome outcome : Journey.Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+        LatencyHistogram journeys = new LatencyHistogram();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        boolean measuring = false;
+        for (long number = 0; ; number++) {
+            long due = start + number * interval;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && due >= measureFrom) {
+                client.startRecording();
+                measuring = true;
+            }
+            boolean recorded = measuring;
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (recorded) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            Journey journey = new Journey(number, options.seed(), catalog, client, cluster, options.maxSeatsPerOrder());
+            workers.execute(() -> {
+                try {
+                    Journey.Outcome outcome = journey.run();
+                    if (recorded) {
+                        outcomes.get(outcome).increment();
+                        journeys.record(System.nanoTime() - due);
+                    }
+                } catch (RuntimeException e) {
+                    if (recorded) {
+                        outcomes.get(Journey.Outcome.FAILED).increment();
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        client.stopRecording();
+        double elapsedSeconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        Map<Journey.Outcome, Long> totals = new EnumMap<>(Journey.Outcome.class);
+        outcomes.forEach((outcome, count) -> totals.put(outcome, count.sum()));
+        return new LoadReport(options, totals, dropped.get(), elapsedSeconds, journeys, client,
+                OversellAudit.audit(catalog, client, cluster));
+    }
+
+    // A virtual thread per journey; max-in-flight bounds how many are alive at once
+    static ExecutorService newWorkers() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,70 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Counts, after the run, the seats every showtime gave away beyond what it has. A seat sold
+// twice, more live tickets than the screen holds, or more seats in live bookings than the
+// screen holds are each an oversell; a showtime's oversold figure is the largest of the three.
+final class OversellAudit {
+
+    private static final Set<String> LIVE_TICKETS = Set.of("ACTIVE", "USED");
+    private static final Set<String> LIVE_BOOKINGS = Set.of("PENDING", "CONFIRMED", "COMPLETED");
+
+    record ShowtimeAudit(long showtimeId, String title, int capacity, int tickets, int doubleSold,
+                         int ticketsOverCapacity, int bookedSeats, int bookingsOverCapacity) {
+
+        int oversold() {
+            return Math.max(doubleSold, Math.max(ticketsOverCapacity, bookingsOverCapacity));
+        }
+    }
+
+    private OversellAudit() {
+    }
+
+    static List<ShowtimeAudit> audit(Catalog catalog, LoadClient client, ServiceCluster cluster) {
+        List<ShowtimeAudit> audits = new ArrayList<>();
+        for (Catalog.SeededShowtime showtime : catalog.showtimes.values()) {
+            JsonNode tickets = fetch(client, cluster.tickets + "/showtime/" + showtime.id() + "/summary");
+            int live = 0;
+            Set<String> seats = new HashSet<>();
+            for (JsonNode ticket : tickets) {
+                if (LIVE_TICKETS.contains(ticket.path("status").asText())) {
+                    live++;
+                    seats.add(ticket.path("seatNumber").asText());
+                }
+            }
+
+            JsonNode bookings = fetch(client, cluster.bookings + "/showtime/" + showtime.id() + "/summary");
+            int bookedSeats = 0;
+            for (JsonNode booking : bookings) {
+                if (LIVE_BOOKINGS.contains(booking.path("status").asText())) {
+                    bookedSeats += booking.path("numberOfSeats").asInt();
+                }
+            }
+
+            int capacity = showtime.layout().totalSeats();
+            String title = catalog.movies.stream()
+                    .filter(movie -> movie.id() == showtime.movieId())
+                    .map(Catalog.SeededMovie::title)
+                    .findFirst()
+                    .orElse("?");
+            audits.add(new ShowtimeAudit(showtime.id(), title, capacity, live, live - seats.size(),
+                    Math.max(0, live - capacity), bookedSeats, Math.max(0, bookedSeats - capacity)));
+        }
+        audits.sort((a, b) -> Long.compare(a.showtimeId(), b.showtimeId()));
+        return audits;
+    }
+
+    private static JsonNode fetch(LoadClient client, String url) {
+        LoadClient.Response response = client.get(Step.SETUP, url);
+        if (!response.ok()) {
+            throw new IllegalStateException("Oversell audit failed to read " + url + ": HTTP " + response.status());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,56 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import com.moviebooking.benchmarks.support.H2Backend;
+import com.moviebooking.booking.BookingServiceApplication;
+import com.moviebooking.movies.MoviesServiceApplication;
+import com.moviebooking.showtime.ShowtimeServiceApplication;
+import com.moviebooking.ticket.TicketServiceApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The four services in this JVM, each on its own H2 database and a free port. They start
+// in dependency order, so booking-service can be pointed at the showtime service it releases
+// seats through, and movies-service at the booking counts it ranks popularity by.
+final class ServiceCluster implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    final String showtimes;
+    final String bookings;
+    final String tickets;
+    final String movies;
+
+    ServiceCluster() {
+        try {
+            String showtimeService = serve(ShowtimeServiceApplication.class, "showtimes");
+            showtimes = showtimeService + "/api/showtimes";
+            String bookingService = serve(BookingServiceApplication.class, "bookings",
+                    "booking.showtime-service.url=" + showtimeService, "booking.id.node-id=0");
+            bookings = bookingService + "/api/bookings";
+            tickets = serve(TicketServiceApplication.class, "tickets", "ticket.id.node-id=0") + "/api/tickets";
+            movies = serve(MoviesServiceApplication.class, "movies",
+                    "movies.booking-service.url=" + bookingService) + "/api/movies";
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private String serve(Class<?> application, String database, String... overrides) {
+        ConfigurableApplicationContext context = H2Backend.serve(application, database, overrides);
+        contexts.add(context);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package com.moviebooking.benchmarks.loadtest;
+
+// The funnel of one customer, in order. RELEASE is the clean-up after a journey that fails
+// part of the way, handing its held and reserved seats back; SETUP covers seeding and the
+// oversell audit, which are never timed.
+enum Step {
+    BROWSE,
+    SHOWTIMES,
+    SEAT_MAP,
+    HOLD,
+    RESERVE,
+    BOOK,
+    ISSUE_TICKETS,
+    CONFIRM,
+    RELEASE,
+    SETUP
+}
@@ -0,0 +1,28 @@
+package com.moviebooking.benchmarks.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Outcomes and latency of the requests made for one funnel step. Rejected and failed
+// requests are timed as well, since a slow "sold out" costs a customer as much as a slow sale.
+final class StepStats {
+
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder ok = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    void ok(long nanos) {
+        ok.increment();
+        latency.record(nanos);
+    }
+
+    void rejected(long nanos) {
+        rejected.increment();
+        latency.record(nanos);
+    }
+
+    void error(long nanos) {
+        errors.increment();
+        latency.record(nanos);
+    }
+}
@@ -0,0 +1,76 @@
+package com.moviebooking.benchmarks.support;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Properties;
+
+// Boots one service on an embedded H2 database, with the settings from its own
+// application.properties apart from the datasource, SQL echo and log levels. Every service
+// jar has an application.properties at its root, so the file is read from the jar of the
+// application class and the usual classpath lookup is switched off. start() leaves the web
+// layer out; serve() keeps it, on a free port. The database runs in H2's own mode: in MySQL
+// mode, H2 2.1 can hand the same IDENTITY value to two concurrent inserts, which fails the
+// ticket batch insert under @Threads(4).
+public final class H2Backend {
+
+    private H2Backend() {
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> application, String database, String... overrides) {
+        return run(application, WebApplicationType.NONE, database, overrides);
+    }
+
+    public static ConfigurableApplicationContext serve(Class<?> application, String database, String... overrides) {
+        String[] withPort = Arrays.copyOf(overrides, overrides.length + 1);
+        withPort[overrides.length] = "server.port=0";
+        return run(application, WebApplicationType.SERVLET, database, withPort);
+    }
+
+    private static ConfigurableApplicationContext run(Class<?> application, WebApplicationType type,
+                                                      String database, String... overrides) {
+        Properties properties = serviceProperties(application);
+        properties.stringPropertyNames().stream()
+                .filter(name -> name.startsWith("logging.level."))
+                .forEach(properties::remove);
+        properties.setProperty("spring.config.name", "benchmark");
+        properties.setProperty("spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        properties.setProperty("spring.datasource.username", "sa");
+        properties.setProperty("spring.datasource.password", "");
+        properties.setProperty("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.setProperty("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.setProperty("spring.jpa.show-sql", "false");
+        properties.setProperty("spring.jpa.properties.hibernate.format_sql", "false");
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            properties.setProperty(override.substring(0, separator), override.substring(separator + 1));
+        }
+        return new SpringApplicationBuilder(application)
+                .web(type)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(properties)
+                .run();
+    }
+
+    private static Properties serviceProperties(Class<?> application) {
+        try {
+            URL location = application.getProtectionDomain().getCodeSource().getLocation();
+            URL file = location.getPath().endsWith(".jar")
+                    ? new URL("jar:" + location + "!/application.properties")
+                    : new URL(location, "application.properties");
+            return PropertiesLoaderUtils.loadProperties(new UrlResource(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read application.properties of " + application.getSimpleName(), e);
+        }
+    }
+}
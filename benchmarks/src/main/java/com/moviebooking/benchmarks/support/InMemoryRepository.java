@@ -0,0 +1,131 @@
+package com.moviebooking.benchmarks.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Stands in for a Spring Data repository without a database. Seeded entities live in a map;
+// saved ones only get an id and are not kept, so a long run does not fill the heap. Queries
+// beyond the basic CRUD methods need a handler, anything else throws.
+public final class InMemoryRepository<T> implements InvocationHandler {
+
+    private final Function<T, Long> idOf;
+    private final BiConsumer<T, Long> assignId;
+    private final Map<Long, T> entities = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object[], Object>> handlers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private String repositoryName = "repository";
+
+    public InMemoryRepository(Function<T, Long> idOf, BiConsumer<T, Long> assignId) {
+        this.idOf = idOf;
+        this.assignId = assignId;
+    }
+
+    public InMemoryRepository<T> seed(Collection<? extends T> seeded) {
+        for (T entity : seeded) {
+            entities.put(assignIfMissing(entity), entity);
+        }
+        return this;
+    }
+
+    // Handlers are matched on the method name, so overloads share one
+    public InMemoryRepository<T> on(String methodName, Function<Object[], Object> handler) {
+        handlers.put(methodName, handler);
+        return this;
+    }
+
+    public Collection<T> entities() {
+        return entities.values();
+    }
+
+    public long writes() {
+        return writes.get();
+    }
+
+    public <R> R as(Class<R> repositoryType) {
+        repositoryName = repositoryType.getSimpleName();
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, this));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "InMemory" + repositoryName;
+            };
+        }
+        Object[] arguments = args != null ? args : new Object[0];
+        Function<Object[], Object> handler = handlers.get(name);
+        if (handler != null) {
+            return handler.apply(arguments);
+        }
+        return switch (name) {
+            case "save", "saveAndFlush" -> write((T) arguments[0]);
+            case "saveAll", "saveAllAndFlush" -> {
+                List<T> saved = new ArrayList<>();
+                for (T entity : (Iterable<T>) arguments[0]) {
+                    saved.add(write(entity));
+                }
+                yield saved;
+            }
+            case "findById" -> Optional.ofNullable(entities.get((Long) arguments[0]));
+            case "existsById" -> entities.containsKey((Long) arguments[0]);
+            case "findAllById" -> {
+                List<T> found = new ArrayList<>();
+                for (Long id : (Iterable<Long>) arguments[0]) {
+                    T entity = entities.get(id);
+                    if (entity != null) {
+                        found.add(entity);
+                    }
+                }
+                yield found;
+            }
+            case "findAll" -> {
+                if (arguments.length > 0) {
+                    throw unsupported(name);
+                }
+                yield new ArrayList<>(entities.values());
+            }
+            case "count" -> (long) entities.size();
+            case "flush" -> null;
+            default -> throw unsupported(name);
+        };
+    }
+
+    private T write(T entity) {
+        assignIfMissing(entity);
+        writes.incrementAndGet();
+        return entity;
+    }
+
+    private Long assignIfMissing(T entity) {
+        Long id = idOf.apply(entity);
+        if (id == null) {
+            id = sequence.incrementAndGet();
+            assignId.accept(entity, id);
+        } else {
+            sequence.accumulateAndGet(id, Math::max);
+        }
+        return Objects.requireNonNull(id);
+    }
+
+    private UnsupportedOperationException unsupported(String methodName) {
+        return new UnsupportedOperationException(repositoryName + "." + methodName + " has no in-memory handler");
+    }
+}
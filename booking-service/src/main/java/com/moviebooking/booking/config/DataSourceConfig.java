@@ -0,0 +1,29 @@
+package com.moviebooking.booking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Two pools on the same database. The primary one serves JPA and every request path. Exports
+// read through the second, whose connections fetch rows from a server-side cursor; see the
+// Export Configuration in application.properties. Declaring the second pool switches off
+// Spring Boot's own, so the primary is built here the way Boot builds it.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("booking.export.datasource.hikari")
+    public HikariDataSource exportDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -1,25 +1,38 @@
 package com.moviebooking.booking.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.moviebooking.booking.dto.BookingSummary;
 import com.moviebooking.booking.enums.BookingStatus;
+import com.moviebooking.booking.enums.ExportFormat;
 import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.service.BookingExportService;
 import com.moviebooking.booking.service.BookingService;
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.common.dto.CursorPage;
+import com.moviebooking.common.service.IdempotencyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -30,13 +43,21 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class BookingController {
 
+    private static final TypeReference<Booking> BOOKING = new TypeReference<>() {
+    };
+
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking) {
+    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking,
+                                                 @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Creating booking for customer: {}", booking.getCustomerEmail());
-        Booking createdBooking = bookingService.createBooking(booking);
-        return new ResponseEntity<>(createdBooking, HttpStatus.CREATED);
+        return idempotencyStore.execute("bookings", idempotencyKey, null, BOOKING, () -> {
+            Booking createdBooking = bookingService.createBooking(booking);
+            return new ResponseEntity<>(createdBooking, HttpStatus.CREATED);
+        });
     }
 
     @PutMapping("/{id}")
@@ -48,7 +69,7 @@ public class BookingController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Booking> getBookingById(@PathVariable Long id) {
-        log.info("Fetching booking with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking with id: {}", id);
         Optional<Booking> booking = bookingService.getBookingById(id);
         return booking.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
@@ -56,7 +77,7 @@ public class BookingController {
 
     @GetMapping("/reference/{bookingReference}")
     public ResponseEntity<Booking> getBookingByReference(@PathVariable @NotBlank String bookingReference) {
-        log.info("Fetching booking with reference: {}", bookingReference);
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking with reference: {}", bookingReference);
         Optional<Booking> booking = bookingService.getBookingByReference(bookingReference);
         return booking.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
@@ -64,49 +85,63 @@ public class BookingController {
 
     @GetMapping("/customer/email/{email}")
     public ResponseEntity<List<Booking>> getBookingsByCustomerEmail(@PathVariable @NotBlank String email) {
-        log.info("Fetching bookings for customer: {}", email);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {}", email);
         List<Booking> bookings = bookingService.getBookingsByCustomerEmail(email);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/customer/email/{email}/summary")
+    public ResponseEntity<List<BookingSummary>> getBookingSummariesByCustomerEmail(@PathVariable @NotBlank String email) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking summaries for customer: {}", email);
+        List<BookingSummary> bookings = bookingService.getBookingSummariesByCustomerEmail(email);
+        return ResponseEntity.ok(bookings);
+    }
+
     @GetMapping("/customer/phone/{phone}")
     public ResponseEntity<List<Booking>> getBookingsByCustomerPhone(@PathVariable @NotBlank String phone) {
-        log.info("Fetching bookings for phone: {}", phone);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for phone: {}", phone);
         List<Booking> bookings = bookingService.getBookingsByCustomerPhone(phone);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<List<Booking>> getBookingsByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Fetching bookings for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for movie: {}", movieId);
         List<Booking> bookings = bookingService.getBookingsByMovie(movieId);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/theater/{theaterId}")
     public ResponseEntity<List<Booking>> getBookingsByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Fetching bookings for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for theater: {}", theaterId);
         List<Booking> bookings = bookingService.getBookingsByTheater(theaterId);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/showtime/{showtimeId}")
     public ResponseEntity<List<Booking>> getBookingsByShowtime(@PathVariable @NotNull Long showtimeId) {
-        log.info("Fetching bookings for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for showtime: {}", showtimeId);
         List<Booking> bookings = bookingService.getBookingsByShowtime(showtimeId);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/showtime/{showtimeId}/summary")
+    public ResponseEntity<List<BookingSummary>> getBookingSummariesByShowtime(@PathVariable @NotNull Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking summaries for showtime: {}", showtimeId);
+        List<BookingSummary> bookings = bookingService.getBookingSummariesByShowtime(showtimeId);
+        return ResponseEntity.ok(bookings);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable BookingStatus status) {
-        log.info("Fetching bookings with status: {}", status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with status: {}", status);
         List<Booking> bookings = bookingService.getBookingsByStatus(status);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/payment-status/{paymentStatus}")
     public ResponseEntity<List<Booking>> getBookingsByPaymentStatus(@PathVariable Booking.PaymentStatus paymentStatus) {
-        log.info("Fetching bookings with payment status: {}", paymentStatus);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with payment status: {}", paymentStatus);
         List<Booking> bookings = bookingService.getBookingsByPaymentStatus(paymentStatus);
         return ResponseEntity.ok(bookings);
     }
@@ -115,7 +150,7 @@ public class BookingController {
     public ResponseEntity<List<Booking>> getBookingsByCustomerAndStatus(
             @PathVariable @NotBlank String email,
             @PathVariable BookingStatus status) {
-        log.info("Fetching bookings for customer: {} with status: {}", email, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {} with status: {}", email, status);
         List<Booking> bookings = bookingService.getBookingsByCustomerAndStatus(email, status);
         return ResponseEntity.ok(bookings);
     }
@@ -124,7 +159,7 @@ public class BookingController {
     public ResponseEntity<List<Booking>> getBookingsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching bookings between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings between {} and {}", startDate, endDate);
         List<Booking> bookings = bookingService.getBookingsByDateRange(startDate, endDate);
         return ResponseEntity.ok(bookings);
     }
@@ -133,17 +168,48 @@ public class BookingController {
     public ResponseEntity<List<Booking>> getBookingsByShowDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching bookings for shows between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for shows between {} and {}", startDate, endDate);
         List<Booking> bookings = bookingService.getBookingsByShowDateRange(startDate, endDate);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/date-range/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        log.info("Exporting bookings between {} and {} as {}", startDate, endDate, format);
+        return exportResponse(format, output ->
+                bookingExportService.exportByBookingDate(startDate, endDate, format, output));
+    }
+
+    @GetMapping("/show-date-range/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByShowDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        log.info("Exporting bookings for shows between {} and {} as {}", startDate, endDate, format);
+        return exportResponse(format, output ->
+                bookingExportService.exportByShowDate(startDate, endDate, format, output));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(ExportFormat format, StreamingResponseBody body) {
+        boolean csv = format == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "bookings.csv" : "bookings.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/status/{status}/paginated")
     public ResponseEntity<Page<Booking>> getBookingsByStatusPaginated(
             @PathVariable BookingStatus status,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.info("Fetching paginated bookings with status: {} - page: {}, size: {}", status, page, size);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated bookings with status: {} - page: {}, size: {}", status, page, size);
         Pageable pageable = PageRequest.of(page, size);
         Page<Booking> bookings = bookingService.getBookingsByStatusPaginated(status, pageable);
         return ResponseEntity.ok(bookings);
@@ -154,12 +220,32 @@ public class BookingController {
             @PathVariable @NotBlank String email,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.info("Fetching paginated bookings for customer: {} - page: {}, size: {}", email, page, size);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated bookings for customer: {} - page: {}, size: {}", email, page, size);
         Pageable pageable = PageRequest.of(page, size);
         Page<Booking> bookings = bookingService.getBookingsByCustomerPaginated(email, pageable);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<CursorPage<Booking>> getBookingsByStatusAfter(
+            @PathVariable BookingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with status: {} after cursor: {}, size: {}", status, cursor, size);
+        CursorPage<Booking> bookings = bookingService.getBookingsByStatusAfter(status, cursor, size);
+        return ResponseEntity.ok(bookings);
+    }
+
+    @GetMapping("/customer/{email}/cursor")
+    public ResponseEntity<CursorPage<Booking>> getBookingsByCustomerAfter(
+            @PathVariable @NotBlank String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {} after cursor: {}, size: {}", email, cursor, size);
+        CursorPage<Booking> bookings = bookingService.getBookingsByCustomerAfter(email, cursor, size);
+        return ResponseEntity.ok(bookings);
+    }
+
     @PatchMapping("/{id}/confirm")
     public ResponseEntity<String> confirmBooking(
             @PathVariable Long id,
@@ -225,49 +311,56 @@ public class BookingController {
 
     @GetMapping("/movie/{movieId}/count")
     public ResponseEntity<Long> getBookingCountByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting booking count for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for movie: {}", movieId);
         Long count = bookingService.getBookingCountByMovie(movieId);
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/movies/counts")
+    public ResponseEntity<Map<Long, Long>> getBookingCountsByMovie() {
+        log.info(SampledLogFilter.SAMPLED, "Getting booking counts for all movies");
+        Map<Long, Long> counts = bookingService.getBookingCountsByMovie();
+        return ResponseEntity.ok(counts);
+    }
+
     @GetMapping("/theater/{theaterId}/count")
     public ResponseEntity<Long> getBookingCountByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting booking count for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for theater: {}", theaterId);
         Long count = bookingService.getBookingCountByTheater(theaterId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/showtime/{showtimeId}/count")
     public ResponseEntity<Long> getBookingCountByShowtime(@PathVariable @NotNull Long showtimeId) {
-        log.info("Getting booking count for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for showtime: {}", showtimeId);
         Long count = bookingService.getBookingCountByShowtime(showtimeId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/movie/{movieId}/revenue")
     public ResponseEntity<Double> getRevenueByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting revenue for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for movie: {}", movieId);
         Double revenue = bookingService.getRevenueByMovie(movieId);
         return ResponseEntity.ok(revenue);
     }
 
     @GetMapping("/theater/{theaterId}/revenue")
     public ResponseEntity<Double> getRevenueByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting revenue for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for theater: {}", theaterId);
         Double revenue = bookingService.getRevenueByTheater(theaterId);
         return ResponseEntity.ok(revenue);
     }
 
     @GetMapping("/movie/{movieId}/seats")
     public ResponseEntity<Long> getTotalSeatsByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting total seats booked for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting total seats booked for movie: {}", movieId);
         Long seats = bookingService.getTotalSeatsByMovie(movieId);
         return ResponseEntity.ok(seats);
     }
 
     @GetMapping("/theater/{theaterId}/seats")
     public ResponseEntity<Long> getTotalSeatsByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting total seats booked for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting total seats booked for theater: {}", theaterId);
         Long seats = bookingService.getTotalSeatsByTheater(theaterId);
         return ResponseEntity.ok(seats);
     }
@@ -0,0 +1,41 @@
+package com.moviebooking.booking.dto;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One exported booking, read straight from the bookings and booking_seats tables
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+
+    private Long id;
+    private String bookingReference;
+    private Long movieId;
+    private Long theaterId;
+    private Long showtimeId;
+    private String customerName;
+    private String customerEmail;
+    private String customerPhone;
+    private Integer numberOfSeats;
+    private List<String> seatNumbers;
+    private Double totalAmount;
+    private Double taxAmount;
+    private Double finalAmount;
+    private BookingStatus status;
+    private Booking.PaymentStatus paymentStatus;
+    private Booking.PaymentMethod paymentMethod;
+    private String paymentId;
+    private LocalDateTime showDateTime;
+    private LocalDateTime bookingDate;
+    private LocalDateTime paymentDate;
+    private LocalDateTime cancellationDate;
+}
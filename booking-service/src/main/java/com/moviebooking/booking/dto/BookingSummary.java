@@ -0,0 +1,32 @@
+package com.moviebooking.booking.dto;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// List view of a booking, selected column by column, so no entity or seat collection is
+// loaded. The constructor is used by the repository queries; keep its argument order.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummary {
+
+    private Long id;
+    private String bookingReference;
+    private Long movieId;
+    private Long theaterId;
+    private Long showtimeId;
+    private String customerName;
+    private Integer numberOfSeats;
+    private Double finalAmount;
+    private BookingStatus status;
+    private Booking.PaymentStatus paymentStatus;
+    private LocalDateTime showDateTime;
+    private LocalDateTime bookingDate;
+}
@@ -1,22 +1,33 @@
 package com.moviebooking.booking.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.moviebooking.booking.enums.BookingStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_status_date", columnList = "status, bookingDate, id"),
+    @Index(name = "idx_bookings_email_date", columnList = "customerEmail, bookingDate, id"),
+    @Index(name = "idx_bookings_booking_date", columnList = "bookingDate"),
+    @Index(name = "idx_bookings_show_date", columnList = "showDateTime"),
+    @Index(name = "idx_bookings_seats_release", columnList = "seatsReleasePending")
+})
+@NamedEntityGraph(name = Booking.WITH_SEATS, attributeNodes = @NamedAttributeNode("seatNumbers"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
 
+    public static final String WITH_SEATS = "Booking.withSeats";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,7 +56,10 @@ public class Booking {
     @Column(nullable = false)
     private Integer numberOfSeats;
 
+    // Joined in by finders using the WITH_SEATS graph. Paged queries cannot join a collection
+    // without paging in memory, so they load it for a batch of bookings at a time instead.
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "booking_seats", joinColumns = @JoinColumn(name = "booking_id"))
     @Column(name = "seat_number")
     private List<String> seatNumbers;
@@ -98,6 +112,15 @@ public class Booking {
     @Column
     private LocalDateTime updatedAt;
 
+    // Set when the booking expires and cleared once the showtime service has its seats back,
+    // so releases that failed survive a restart
+    @JsonIgnore
+    @Column(nullable = false)
+    private boolean seatsReleasePending;
+
+    @Version
+    private long version;
+
     // Helper methods
     public boolean isPaid() {
         return paymentStatus == PaymentStatus.COMPLETED;
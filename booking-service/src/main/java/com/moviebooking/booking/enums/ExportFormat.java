@@ -0,0 +1,5 @@
+package com.moviebooking.booking.enums;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
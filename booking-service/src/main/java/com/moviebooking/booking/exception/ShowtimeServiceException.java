@@ -0,0 +1,12 @@
+package com.moviebooking.booking.exception;
+
+public class ShowtimeServiceException extends RuntimeException {
+
+    public ShowtimeServiceException(String message) {
+        super(message);
+    }
+
+    public ShowtimeServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,80 +1,175 @@
 package com.moviebooking.booking.repository;
 
+import com.moviebooking.booking.dto.BookingSummary;
 import com.moviebooking.booking.enums.BookingStatus;
 import com.moviebooking.booking.entity.Booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @Override
+    @EntityGraph(Booking.WITH_SEATS)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.WITH_SEATS)
     Optional<Booking> findByBookingReference(String bookingReference);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByCustomerEmail(String customerEmail);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByCustomerPhone(String customerPhone);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByMovieId(Long movieId);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByTheaterId(Long theaterId);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByShowtimeId(Long showtimeId);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByStatus(BookingStatus status);
 
+    @EntityGraph(Booking.WITH_SEATS)
     List<Booking> findByPaymentStatus(Booking.PaymentStatus paymentStatus);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.customerEmail = :email AND b.status = :status ORDER BY b.bookingDate DESC")
     List<Booking> findByCustomerEmailAndStatus(@Param("email") String email, @Param("status") BookingStatus status);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.customerEmail = :email AND b.paymentStatus = :paymentStatus ORDER BY b.bookingDate DESC")
     List<Booking> findByCustomerEmailAndPaymentStatus(@Param("email") String email, @Param("paymentStatus") Booking.PaymentStatus paymentStatus);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.bookingDate BETWEEN :startDate AND :endDate ORDER BY b.bookingDate DESC")
     List<Booking> findByBookingDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.showDateTime BETWEEN :startDate AND :endDate ORDER BY b.showDateTime")
     List<Booking> findByShowDateTimeBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    @Query("SELECT new com.moviebooking.booking.dto.BookingSummary(b.id, b.bookingReference, b.movieId, b.theaterId, " +
+           "b.showtimeId, b.customerName, b.numberOfSeats, b.finalAmount, b.status, b.paymentStatus, b.showDateTime, b.bookingDate) " +
+           "FROM Booking b WHERE b.customerEmail = :email ORDER BY b.bookingDate DESC, b.id DESC")
+    List<BookingSummary> findSummariesByCustomerEmail(@Param("email") String email);
+
+    @Query("SELECT new com.moviebooking.booking.dto.BookingSummary(b.id, b.bookingReference, b.movieId, b.theaterId, " +
+           "b.showtimeId, b.customerName, b.numberOfSeats, b.finalAmount, b.status, b.paymentStatus, b.showDateTime, b.bookingDate) " +
+           "FROM Booking b WHERE b.showtimeId = :showtimeId ORDER BY b.id")
+    List<BookingSummary> findSummariesByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.movieId = :movieId AND b.status = :status")
     List<Booking> findByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") BookingStatus status);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.theaterId = :theaterId AND b.status = :status")
     List<Booking> findByTheaterIdAndStatus(@Param("theaterId") Long theaterId, @Param("status") BookingStatus status);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.showtimeId = :showtimeId AND b.status = :status")
     List<Booking> findByShowtimeIdAndStatus(@Param("showtimeId") Long showtimeId, @Param("status") BookingStatus status);
 
+    @EntityGraph(Booking.WITH_SEATS)
     @Query("SELECT b FROM Booking b WHERE b.paymentMethod = :paymentMethod AND b.paymentStatus = :paymentStatus")
     List<Booking> findByPaymentMethodAndPaymentStatus(
         @Param("paymentMethod") Booking.PaymentMethod paymentMethod, 
         @Param("paymentStatus") Booking.PaymentStatus paymentStatus
     );
 
-    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.showDateTime < :currentTime")
-    List<Booking> findExpiredBookings(@Param("status") BookingStatus status, @Param("currentTime") LocalDateTime currentTime);
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.bookingDate < :cutoff ORDER BY b.bookingDate, b.id")
+    List<Long> findExpiredBookingIds(@Param("status") BookingStatus status,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     Pageable pageable);
+
+    // Also marks the bookings' seats as owed back to the showtime service
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :expiredStatus, b.seatsReleasePending = true, b.updatedAt = :updatedAt, " +
+           "b.version = b.version + 1 WHERE b.id IN :ids AND b.status = :status")
+    int expireBookings(@Param("ids") Collection<Long> ids,
+                       @Param("status") BookingStatus status,
+                       @Param("expiredStatus") BookingStatus expiredStatus,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Id, showtime id and seat count of expired bookings whose seats have not been released yet
+    @Query("SELECT b.id, b.showtimeId, b.numberOfSeats FROM Booking b WHERE b.seatsReleasePending = true ORDER BY b.id")
+    List<Object[]> findPendingSeatReleases(Pageable pageable);
+
+    // Only changes rows not already in the requested state, so a release is claimed by one caller
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.seatsReleasePending = :pending, b.version = b.version + 1 " +
+           "WHERE b.id IN :ids AND b.seatsReleasePending <> :pending")
+    int updateSeatsReleasePending(@Param("ids") Collection<Long> ids, @Param("pending") boolean pending);
 
     Page<Booking> findByStatusOrderByBookingDateDesc(BookingStatus status, Pageable pageable);
 
     Page<Booking> findByCustomerEmailOrderByBookingDateDesc(String customerEmail, Pageable pageable);
 
+    // Keyset pages, newest first. Pass PageRequest.of(0, n): a List return skips the count query.
+    @Query("SELECT b FROM Booking b WHERE b.status = :status ORDER BY b.bookingDate DESC, b.id DESC")
+    List<Booking> findFirstPageByStatus(@Param("status") BookingStatus status, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND (b.bookingDate < :bookingDate " +
+           "OR (b.bookingDate = :bookingDate AND b.id < :id)) ORDER BY b.bookingDate DESC, b.id DESC")
+    List<Booking> findPageByStatusAfter(@Param("status") BookingStatus status,
+                                        @Param("bookingDate") LocalDateTime bookingDate,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.customerEmail = :email ORDER BY b.bookingDate DESC, b.id DESC")
+    List<Booking> findFirstPageByCustomerEmail(@Param("email") String email, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.customerEmail = :email AND (b.bookingDate < :bookingDate " +
+           "OR (b.bookingDate = :bookingDate AND b.id < :id)) ORDER BY b.bookingDate DESC, b.id DESC")
+    List<Booking> findPageByCustomerEmailAfter(@Param("email") String email,
+                                               @Param("bookingDate") LocalDateTime bookingDate,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.movieId = :movieId AND b.status = :status")
     Long countByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") BookingStatus status);
 
+    @Query("SELECT b.movieId, COUNT(b) FROM Booking b WHERE b.status IN :statuses GROUP BY b.movieId")
+    List<Object[]> countGroupedByMovieId(@Param("statuses") Collection<BookingStatus> statuses);
+
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.theaterId = :theaterId AND b.status = :status")
     Long countByTheaterIdAndStatus(@Param("theaterId") Long theaterId, @Param("status") BookingStatus status);
 
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.showtimeId = :showtimeId AND b.status = :status")
     Long countByShowtimeIdAndStatus(@Param("showtimeId") Long showtimeId, @Param("status") BookingStatus status);
 
+    // Grouped totals for rebuilding the in-memory rollups: [key, count, seats] and [key, revenue]
+    @Query("SELECT b.movieId, COUNT(b), SUM(b.numberOfSeats) FROM Booking b WHERE b.status = :status GROUP BY b.movieId")
+    List<Object[]> sumSeatsGroupedByMovieId(@Param("status") BookingStatus status);
+
+    @Query("SELECT b.theaterId, COUNT(b), SUM(b.numberOfSeats) FROM Booking b WHERE b.status = :status GROUP BY b.theaterId")
+    List<Object[]> sumSeatsGroupedByTheaterId(@Param("status") BookingStatus status);
+
+    @Query("SELECT b.showtimeId, COUNT(b), SUM(b.numberOfSeats) FROM Booking b WHERE b.status = :status GROUP BY b.showtimeId")
+    List<Object[]> sumSeatsGroupedByShowtimeId(@Param("status") BookingStatus status);
+
+    @Query("SELECT b.movieId, SUM(b.finalAmount) FROM Booking b WHERE b.paymentStatus = :paymentStatus GROUP BY b.movieId")
+    List<Object[]> sumRevenueGroupedByMovieId(@Param("paymentStatus") Booking.PaymentStatus paymentStatus);
+
+    @Query("SELECT b.theaterId, SUM(b.finalAmount) FROM Booking b WHERE b.paymentStatus = :paymentStatus GROUP BY b.theaterId")
+    List<Object[]> sumRevenueGroupedByTheaterId(@Param("paymentStatus") Booking.PaymentStatus paymentStatus);
+
     @Query("SELECT SUM(b.finalAmount) FROM Booking b WHERE b.movieId = :movieId AND b.paymentStatus = :paymentStatus")
     Double sumRevenueByMovieIdAndPaymentStatus(@Param("movieId") Long movieId, @Param("paymentStatus") Booking.PaymentStatus paymentStatus);
 
@@ -0,0 +1,149 @@
+package com.moviebooking.booking.service;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import com.moviebooking.booking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Expires PENDING bookings left unpaid past the payment hold window, counted from bookingDate,
+// and gives their seats back to the showtime service. Each chunk of ids is expired with one
+// bulk UPDATE guarded on status, in its own short transaction and without row locks, so a
+// booking confirmed meanwhile is simply skipped. PENDING bookings add nothing to the rollups,
+// so there is no delta to record. The same UPDATE flags the seats as owed, and every sweep
+// releases the flagged bookings from the table, so a restart or an unreachable showtime
+// service only delays a release.
+//
+// Unlike tickets, bookings are not put on a timing wheel. Every PENDING booking falls due a
+// fixed hold window after it is made, so a wheel would have to track all of them, on every
+// instance, and rebuild them after a restart. The sweep reads only the ids already due from
+// the (status, bookingDate) index, and its interval bounds how late an expiry can be, which
+// is small next to the hold window.
+@Component
+@Slf4j
+public class BookingExpiryScheduler {
+
+    private final BookingRepository bookingRepository;
+    private final ShowtimeSeatsClient showtimeSeatsClient;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkSize;
+    private final long holdWindowSeconds;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepository,
+                                  ShowtimeSeatsClient showtimeSeatsClient,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${booking.expiry.chunk-size:500}") int chunkSize,
+                                  @Value("${booking.expiry.hold-window-seconds:900}") long holdWindowSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.showtimeSeatsClient = showtimeSeatsClient;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.holdWindowSeconds = holdWindowSeconds;
+    }
+
+    public boolean isHoldExpired(Booking booking) {
+        return booking.getStatus() == BookingStatus.EXPIRED
+                || booking.getStatus() == BookingStatus.PENDING
+                && booking.getBookingDate() != null
+                && booking.getBookingDate().isBefore(holdCutoff());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.sweep-interval-ms:15000}")
+    public int sweep() {
+        int expired = 0;
+        while (true) {
+            Integer chunk = writeTransaction.execute(status -> expireChunk());
+            // Nothing left to expire, or every id was confirmed or cancelled in the meantime
+            if (chunk == null || chunk == 0) {
+                break;
+            }
+            expired += chunk;
+        }
+        if (expired > 0) {
+            log.info("Expired {} bookings past their payment window", expired);
+        }
+        releasePendingSeats();
+        return expired;
+    }
+
+    private int expireChunk() {
+        List<Long> ids = bookingRepository.findExpiredBookingIds(
+                BookingStatus.PENDING, holdCutoff(), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return bookingRepository.expireBookings(ids, BookingStatus.PENDING, BookingStatus.EXPIRED, LocalDateTime.now());
+    }
+
+    // Works through the flagged bookings a chunk at a time, one showtime at a time. A showtime's
+    // bookings are claimed by clearing their flag before the call, so instances sweeping side
+    // by side never release the same seats twice, and flagged again if the call fails.
+    private void releasePendingSeats() {
+        while (true) {
+            List<Object[]> rows = bookingRepository.findPendingSeatReleases(PageRequest.of(0, chunkSize));
+            Map<Long, List<Object[]>> byShowtime = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                byShowtime.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add(row);
+            }
+            boolean released = true;
+            for (Map.Entry<Long, List<Object[]>> entry : byShowtime.entrySet()) {
+                released &= release(entry.getKey(), entry.getValue());
+            }
+            // Stop at the last chunk, or after a failure so that a showtime service that is down
+            // is not retried again in the same sweep
+            if (!released || rows.size() < chunkSize) {
+                return;
+            }
+        }
+    }
+
+    private boolean release(Long showtimeId, List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        int seats = 0;
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+            seats += row[2] != null ? ((Number) row[2]).intValue() : 0;
+        }
+        Boolean claimed = writeTransaction.execute(status -> {
+            if (bookingRepository.updateSeatsReleasePending(ids, false) == ids.size()) {
+                return true;
+            }
+            // Another instance got to some of them first; leave them all to the next sweep
+            status.setRollbackOnly();
+            return false;
+        });
+        if (!Boolean.TRUE.equals(claimed)) {
+            return false;
+        }
+        if (seats == 0) {
+            return true;
+        }
+        try {
+            if (showtimeSeatsClient.releaseSeats(showtimeId, seats)) {
+                log.debug("Released {} seats for showtime {}", seats, showtimeId);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            writeTransaction.executeWithoutResult(status -> bookingRepository.updateSeatsReleasePending(ids, true));
+            log.warn("Failed to release {} seats for showtime {}, will retry: {}", seats, showtimeId, e.getMessage());
+            return false;
+        }
+    }
+
+    private LocalDateTime holdCutoff() {
+        return LocalDateTime.now().minusSeconds(holdWindowSeconds);
+    }
+}
@@ -0,0 +1,13 @@
+package com.moviebooking.booking.service;
+
+import com.moviebooking.booking.enums.ExportFormat;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface BookingExportService {
+
+    long exportByBookingDate(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream output);
+
+    long exportByShowDate(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream output);
+}
@@ -0,0 +1,197 @@
+package com.moviebooking.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebooking.booking.dto.BookingExportRow;
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import com.moviebooking.booking.enums.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Writes bookings to the output as they are read from a forward-only cursor on the export
+// pool, off the pool that serves requests. Seats are loaded for a batch of bookings at a time
+// on the same connection, so memory stays bounded by the batch size whatever the range covers.
+@Service
+@Slf4j
+public class BookingExportServiceImpl implements BookingExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "id", "bookingReference", "movieId", "theaterId", "showtimeId", "customerName", "customerEmail",
+            "customerPhone", "numberOfSeats", "seatNumbers", "totalAmount", "taxAmount", "finalAmount", "status",
+            "paymentStatus", "paymentMethod", "paymentId", "showDateTime", "bookingDate", "paymentDate",
+            "cancellationDate");
+
+    private static final String SELECT_BOOKINGS = "SELECT id, booking_reference, movie_id, theater_id, showtime_id, "
+            + "customer_name, customer_email, customer_phone, number_of_seats, total_amount, tax_amount, final_amount, "
+            + "status, payment_status, payment_method, payment_id, show_date_time, booking_date, payment_date, "
+            + "cancellation_date FROM bookings ";
+
+    private static final String BY_BOOKING_DATE = SELECT_BOOKINGS
+            + "WHERE booking_date BETWEEN :startDate AND :endDate ORDER BY booking_date, id";
+
+    private static final String BY_SHOW_DATE = SELECT_BOOKINGS
+            + "WHERE show_date_time BETWEEN :startDate AND :endDate ORDER BY show_date_time, id";
+
+    private static final String SELECT_SEATS =
+            "SELECT booking_id, seat_number FROM booking_seats WHERE booking_id IN (:bookingIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public BookingExportServiceImpl(@Qualifier("exportDataSource") DataSource exportDataSource,
+                                    ObjectMapper objectMapper,
+                                    @Value("${booking.export.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(exportDataSource);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long exportByBookingDate(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream output) {
+        log.info("Exporting bookings made between {} and {} as {}", startDate, endDate, format);
+        return export(BY_BOOKING_DATE, startDate, endDate, format, output);
+    }
+
+    @Override
+    public long exportByShowDate(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream output) {
+        log.info("Exporting bookings for shows between {} and {} as {}", startDate, endDate, format);
+        return export(BY_SHOW_DATE, startDate, endDate, format, output);
+    }
+
+    // Holds one export connection for the whole export; the cursor lets the seat queries run on
+    // it while the bookings are still being read
+    private long export(String sql, LocalDateTime startDate, LocalDateTime endDate, ExportFormat format,
+                        OutputStream output) {
+        Long exported = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(connection, true));
+            jdbc.getJdbcTemplate().setFetchSize(batchSize);
+            Map<String, Object> range = Map.of("startDate", startDate, "endDate", endDate);
+            try (Stream<BookingExportRow> rows = jdbc.queryForStream(sql, range, BookingExportServiceImpl::toRow)) {
+                return write(rows, jdbc, format, output);
+            }
+        });
+        log.info("Exported {} bookings", exported);
+        return exported;
+    }
+
+    private long write(Stream<BookingExportRow> rows, NamedParameterJdbcTemplate jdbc, ExportFormat format,
+                       OutputStream output) {
+        long exported = 0;
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) {
+                writer.write(String.join(",", CSV_COLUMNS));
+                writer.write('\n');
+            }
+            List<BookingExportRow> batch = new ArrayList<>(batchSize);
+            Iterator<BookingExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= batchSize) {
+                    exported += writeBatch(batch, jdbc, format, writer);
+                }
+            }
+            exported += writeBatch(batch, jdbc, format, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write booking export", e);
+        }
+        return exported;
+    }
+
+    private int writeBatch(List<BookingExportRow> batch, NamedParameterJdbcTemplate jdbc, ExportFormat format,
+                           Writer writer) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<String>> seats = new HashMap<>();
+        List<Long> ids = batch.stream().map(BookingExportRow::getId).toList();
+        jdbc.query(SELECT_SEATS, Map.of("bookingIds", ids), (RowCallbackHandler) rs ->
+                seats.computeIfAbsent(rs.getLong("booking_id"), id -> new ArrayList<>()).add(rs.getString("seat_number")));
+        for (BookingExportRow row : batch) {
+            row.setSeatNumbers(seats.getOrDefault(row.getId(), List.of()));
+            if (format == ExportFormat.CSV) {
+                writer.write(toCsv(row));
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+            }
+            writer.write('\n');
+        }
+        // Hand the batch to the client rather than buffering the whole export
+        writer.flush();
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    private static BookingExportRow toRow(ResultSet rs, int rowNum) throws SQLException {
+        return BookingExportRow.builder()
+                .id(rs.getLong("id"))
+                .bookingReference(rs.getString("booking_reference"))
+                .movieId(rs.getLong("movie_id"))
+                .theaterId(rs.getLong("theater_id"))
+                .showtimeId(rs.getLong("showtime_id"))
+                .customerName(rs.getString("customer_name"))
+                .customerEmail(rs.getString("customer_email"))
+                .customerPhone(rs.getString("customer_phone"))
+                .numberOfSeats(rs.getInt("number_of_seats"))
+                .totalAmount(rs.getDouble("total_amount"))
+                .taxAmount(rs.getDouble("tax_amount"))
+                .finalAmount(rs.getDouble("final_amount"))
+                .status(BookingStatus.valueOf(rs.getString("status")))
+                .paymentStatus(Booking.PaymentStatus.valueOf(rs.getString("payment_status")))
+                .paymentMethod(Booking.PaymentMethod.valueOf(rs.getString("payment_method")))
+                .paymentId(rs.getString("payment_id"))
+                .showDateTime(rs.getObject("show_date_time", LocalDateTime.class))
+                .bookingDate(rs.getObject("booking_date", LocalDateTime.class))
+                .paymentDate(rs.getObject("payment_date", LocalDateTime.class))
+                .cancellationDate(rs.getObject("cancellation_date", LocalDateTime.class))
+                .build();
+    }
+
+    private static String toCsv(BookingExportRow row) {
+        return Stream.of(row.getId(), row.getBookingReference(), row.getMovieId(), row.getTheaterId(),
+                        row.getShowtimeId(), row.getCustomerName(), row.getCustomerEmail(), row.getCustomerPhone(),
+                        row.getNumberOfSeats(), String.join(" ", row.getSeatNumbers()), row.getTotalAmount(),
+                        row.getTaxAmount(), row.getFinalAmount(), row.getStatus(), row.getPaymentStatus(),
+                        row.getPaymentMethod(), row.getPaymentId(), row.getShowDateTime(), row.getBookingDate(),
+                        row.getPaymentDate(), row.getCancellationDate())
+                .map(value -> value == null ? "" : csvField(Objects.toString(value)))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,262 @@
+package com.moviebooking.booking.service;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import com.moviebooking.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Confirmed-booking counts, booked seats and paid revenue per movie, theater and showtime,
+// and sold (confirmed or completed) bookings per movie for the popularity ranking, kept in
+// memory so dashboards read a map entry instead of aggregating the table. Status
+// changes apply their delta once they commit; reconcile() rebuilds everything from grouped
+// queries at startup and then periodically, to repair any drift.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingRollups {
+
+    static final Set<BookingStatus> SOLD_STATUSES = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    private final BookingRepository bookingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Keeps reconciles from overlapping. A lock rather than synchronized, since a reconcile
+    // holds it across its queries and would pin a virtual thread to its carrier meanwhile
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final Dimension movies = new Dimension();
+    private final Dimension theaters = new Dimension();
+    private final Dimension showtimes = new Dimension();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getBookingCountByMovie(Long movieId) {
+        return movies.get(movieId).count.sum();
+    }
+
+    public long getBookingCountByTheater(Long theaterId) {
+        return theaters.get(theaterId).count.sum();
+    }
+
+    public long getBookingCountByShowtime(Long showtimeId) {
+        return showtimes.get(showtimeId).count.sum();
+    }
+
+    // Movies with at least one sold booking
+    public Map<Long, Long> getSoldCountsByMovie() {
+        Map<Long, Long> counts = new HashMap<>();
+        movies.totals.forEach((movieId, totals) -> {
+            long sold = totals.sold.sum();
+            if (sold > 0) {
+                counts.put(movieId, sold);
+            }
+        });
+        return counts;
+    }
+
+    public long getSeatsByMovie(Long movieId) {
+        return movies.get(movieId).seats.sum();
+    }
+
+    public long getSeatsByTheater(Long theaterId) {
+        return theaters.get(theaterId).seats.sum();
+    }
+
+    public double getRevenueByMovie(Long movieId) {
+        return movies.get(movieId).revenue.sum();
+    }
+
+    public double getRevenueByTheater(Long theaterId) {
+        return theaters.get(theaterId).revenue.sum();
+    }
+
+    // What a booking currently adds to the rollups; take it before changing the booking
+    public Contribution contributionOf(Booking booking) {
+        boolean confirmed = booking.getStatus() == BookingStatus.CONFIRMED;
+        boolean paid = booking.getPaymentStatus() == Booking.PaymentStatus.COMPLETED;
+        return new Contribution(booking.getMovieId(), booking.getTheaterId(), booking.getShowtimeId(),
+                confirmed ? 1 : 0,
+                SOLD_STATUSES.contains(booking.getStatus()) ? 1 : 0,
+                confirmed && booking.getNumberOfSeats() != null ? booking.getNumberOfSeats() : 0,
+                paid && booking.getFinalAmount() != null ? booking.getFinalAmount() : 0.0);
+    }
+
+    public void recordAfterCommit(Contribution before, Booking booking) {
+        Contribution after = contributionOf(booking);
+        if (before.equals(after)) {
+            return;
+        }
+        Runnable apply = () -> {
+            apply(before, -1);
+            apply(after, 1);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    // Deltas that land while the queries run are added on top of the results. One committed
+    // just before the queries started can end up counted twice; the next run repairs it.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${booking.rollups.reconcile-interval-ms:900000}",
+               fixedDelayString = "${booking.rollups.reconcile-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                movies.startTracking();
+                theaters.startTracking();
+                showtimes.startTracking();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<Long, Totals> movieTotals = load(
+                    bookingRepository.sumSeatsGroupedByMovieId(BookingStatus.CONFIRMED),
+                    bookingRepository.sumRevenueGroupedByMovieId(Booking.PaymentStatus.COMPLETED),
+                    bookingRepository.countGroupedByMovieId(SOLD_STATUSES));
+            // Sold counts are only read per movie, so the other dimensions do not load them
+            Map<Long, Totals> theaterTotals = load(
+                    bookingRepository.sumSeatsGroupedByTheaterId(BookingStatus.CONFIRMED),
+                    bookingRepository.sumRevenueGroupedByTheaterId(Booking.PaymentStatus.COMPLETED), List.of());
+            Map<Long, Totals> showtimeTotals = load(
+                    bookingRepository.sumSeatsGroupedByShowtimeId(BookingStatus.CONFIRMED), List.of(), List.of());
+
+            lock.writeLock().lock();
+            try {
+                movies.replace(movieTotals);
+                theaters.replace(theaterTotals);
+                showtimes.replace(showtimeTotals);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Reconciled booking rollups for {} movies, {} theaters and {} showtimes",
+                    movieTotals.size(), theaterTotals.size(), showtimeTotals.size());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        lock.readLock().lock();
+        try {
+            movies.add(contribution.movieId(), contribution, sign);
+            theaters.add(contribution.theaterId(), contribution, sign);
+            showtimes.add(contribution.showtimeId(), contribution, sign);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<Long, Totals> load(List<Object[]> seatRows, List<Object[]> revenueRows, List<Object[]> soldRows) {
+        Map<Long, Totals> totals = new ConcurrentHashMap<>();
+        for (Object[] row : seatRows) {
+            Totals entry = totals.computeIfAbsent((Long) row[0], key -> new Totals());
+            entry.count.add(((Number) row[1]).longValue());
+            entry.seats.add(row[2] != null ? ((Number) row[2]).longValue() : 0);
+        }
+        for (Object[] row : revenueRows) {
+            Totals entry = totals.computeIfAbsent((Long) row[0], key -> new Totals());
+            entry.revenue.add(row[1] != null ? ((Number) row[1]).doubleValue() : 0.0);
+        }
+        for (Object[] row : soldRows) {
+            totals.computeIfAbsent((Long) row[0], key -> new Totals()).sold.add(((Number) row[1]).longValue());
+        }
+        return totals;
+    }
+
+    public record Contribution(Long movieId, Long theaterId, Long showtimeId, int count, int sold, int seats,
+                               double revenue) {
+    }
+
+    private static final class Totals {
+
+        private static final Totals EMPTY = new Totals();
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sold = new LongAdder();
+        private final LongAdder seats = new LongAdder();
+        private final DoubleAdder revenue = new DoubleAdder();
+
+        void add(Contribution contribution, int sign) {
+            count.add((long) sign * contribution.count());
+            sold.add((long) sign * contribution.sold());
+            seats.add((long) sign * contribution.seats());
+            revenue.add(sign * contribution.revenue());
+        }
+
+        void add(Totals delta) {
+            count.add(delta.count.sum());
+            sold.add(delta.sold.sum());
+            seats.add(delta.seats.sum());
+            revenue.add(delta.revenue.sum());
+        }
+    }
+
+    private static final class Dimension {
+
+        private volatile ConcurrentMap<Long, Totals> totals = new ConcurrentHashMap<>();
+        // Deltas applied while a reconcile is running; null otherwise
+        private volatile ConcurrentMap<Long, Totals> pending;
+
+        Totals get(Long key) {
+            return key == null ? Totals.EMPTY : totals.getOrDefault(key, Totals.EMPTY);
+        }
+
+        // Called under the read lock, so it never overlaps a replace
+        void add(Long key, Contribution contribution, int sign) {
+            if (key == null) {
+                return;
+            }
+            totals.computeIfAbsent(key, id -> new Totals()).add(contribution, sign);
+            ConcurrentMap<Long, Totals> tracking = pending;
+            if (tracking != null) {
+                tracking.computeIfAbsent(key, id -> new Totals()).add(contribution, sign);
+            }
+        }
+
+        void startTracking() {
+            pending = new ConcurrentHashMap<>();
+        }
+
+        void replace(Map<Long, Totals> loaded) {
+            ConcurrentMap<Long, Totals> replacement = new ConcurrentHashMap<>(loaded);
+            pending.forEach((key, delta) -> replacement.computeIfAbsent(key, id -> new Totals()).add(delta));
+            totals = replacement;
+            pending = null;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.moviebooking.booking.service;
 
+import com.moviebooking.booking.dto.BookingSummary;
 import com.moviebooking.booking.enums.BookingStatus;
 import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.common.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface BookingService {
@@ -28,6 +31,10 @@ public interface BookingService {
 
     List<Booking> getBookingsByShowtime(Long showtimeId);
 
+    List<BookingSummary> getBookingSummariesByCustomerEmail(String customerEmail);
+
+    List<BookingSummary> getBookingSummariesByShowtime(Long showtimeId);
+
     List<Booking> getBookingsByStatus(BookingStatus status);
 
     List<Booking> getBookingsByPaymentStatus(Booking.PaymentStatus paymentStatus);
@@ -52,6 +59,10 @@ public interface BookingService {
 
     Page<Booking> getBookingsByCustomerPaginated(String customerEmail, Pageable pageable);
 
+    CursorPage<Booking> getBookingsByStatusAfter(BookingStatus status, String cursor, int size);
+
+    CursorPage<Booking> getBookingsByCustomerAfter(String customerEmail, String cursor, int size);
+
     boolean confirmBooking(Long bookingId, String paymentId);
 
     boolean confirmBooking(String bookingReference, String paymentId);
@@ -76,6 +87,8 @@ public interface BookingService {
 
     Long getBookingCountByMovie(Long movieId);
 
+    Map<Long, Long> getBookingCountsByMovie();
+
     Long getBookingCountByTheater(Long theaterId);
 
     Long getBookingCountByShowtime(Long showtimeId);
@@ -1,24 +1,32 @@
 package com.moviebooking.booking.service;
 
+import com.moviebooking.booking.dto.BookingSummary;
 import com.moviebooking.booking.enums.BookingStatus;
 import com.moviebooking.booking.entity.Booking;
 import com.moviebooking.booking.exception.BookingNotFoundException;
 import com.moviebooking.booking.exception.BookingValidationException;
 import com.moviebooking.booking.exception.BookingCancellationException;
 import com.moviebooking.booking.repository.BookingRepository;
+import com.moviebooking.common.config.RetryOnOptimisticLock;
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.common.dto.CursorPage;
+import com.moviebooking.common.dto.PageCursor;
+import com.moviebooking.common.service.ReferenceGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +35,9 @@ import java.util.UUID;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingRollups bookingRollups;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final ReferenceGenerator referenceGenerator;
 
     private static final Double TAX_RATE = 0.18; // 18% GST
     private static final Double CONVENIENCE_FEE = 50.0;
@@ -61,6 +72,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @RetryOnOptimisticLock
     public Booking updateBooking(Long id, Booking booking) {
         log.info("Updating booking with id: {}", id);
         Booking existingBooking = bookingRepository.findById(id)
@@ -78,161 +90,245 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public Optional<Booking> getBookingById(Long id) {
-        log.info("Fetching booking with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking with id: {}", id);
         return bookingRepository.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Booking> getBookingByReference(String bookingReference) {
-        log.info("Fetching booking with reference: {}", bookingReference);
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking with reference: {}", bookingReference);
         return bookingRepository.findByBookingReference(bookingReference);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByCustomerEmail(String customerEmail) {
-        log.info("Fetching bookings for customer: {}", customerEmail);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {}", customerEmail);
         return bookingRepository.findByCustomerEmail(customerEmail);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByCustomerPhone(String customerPhone) {
-        log.info("Fetching bookings for phone: {}", customerPhone);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for phone: {}", customerPhone);
         return bookingRepository.findByCustomerPhone(customerPhone);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByMovie(Long movieId) {
-        log.info("Fetching bookings for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for movie: {}", movieId);
         return bookingRepository.findByMovieId(movieId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByTheater(Long theaterId) {
-        log.info("Fetching bookings for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for theater: {}", theaterId);
         return bookingRepository.findByTheaterId(theaterId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByShowtime(Long showtimeId) {
-        log.info("Fetching bookings for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for showtime: {}", showtimeId);
         return bookingRepository.findByShowtimeId(showtimeId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByCustomerEmail(String customerEmail) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking summaries for customer: {}", customerEmail);
+        return bookingRepository.findSummariesByCustomerEmail(customerEmail);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByShowtime(Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching booking summaries for showtime: {}", showtimeId);
+        return bookingRepository.findSummariesByShowtimeId(showtimeId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByStatus(BookingStatus status) {
-        log.info("Fetching bookings with status: {}", status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with status: {}", status);
         return bookingRepository.findByStatus(status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByPaymentStatus(Booking.PaymentStatus paymentStatus) {
-        log.info("Fetching bookings with payment status: {}", paymentStatus);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with payment status: {}", paymentStatus);
         return bookingRepository.findByPaymentStatus(paymentStatus);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByCustomerAndStatus(String email, BookingStatus status) {
-        log.info("Fetching bookings for customer: {} with status: {}", email, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {} with status: {}", email, status);
         return bookingRepository.findByCustomerEmailAndStatus(email, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByCustomerAndPaymentStatus(String email, Booking.PaymentStatus paymentStatus) {
-        log.info("Fetching bookings for customer: {} with payment status: {}", email, paymentStatus);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {} with payment status: {}", email, paymentStatus);
         return bookingRepository.findByCustomerEmailAndPaymentStatus(email, paymentStatus);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching bookings between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings between {} and {}", startDate, endDate);
         return bookingRepository.findByBookingDateBetween(startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByShowDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching bookings for shows between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for shows between {} and {}", startDate, endDate);
         return bookingRepository.findByShowDateTimeBetween(startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByMovieAndStatus(Long movieId, BookingStatus status) {
-        log.info("Fetching bookings for movie: {} with status: {}", movieId, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for movie: {} with status: {}", movieId, status);
         return bookingRepository.findByMovieIdAndStatus(movieId, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByTheaterAndStatus(Long theaterId,BookingStatus status) {
-        log.info("Fetching bookings for theater: {} with status: {}", theaterId, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for theater: {} with status: {}", theaterId, status);
         return bookingRepository.findByTheaterIdAndStatus(theaterId, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByShowtimeAndStatus(Long showtimeId, BookingStatus status) {
-        log.info("Fetching bookings for showtime: {} with status: {}", showtimeId, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for showtime: {} with status: {}", showtimeId, status);
         return bookingRepository.findByShowtimeIdAndStatus(showtimeId, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByPaymentMethod(Booking.PaymentMethod paymentMethod) {
-        log.info("Fetching bookings with payment method: {}", paymentMethod);
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with payment method: {}", paymentMethod);
         return bookingRepository.findByPaymentMethodAndPaymentStatus(paymentMethod, Booking.PaymentStatus.COMPLETED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Booking> getBookingsByStatusPaginated(BookingStatus status, Pageable pageable) {
-        log.info("Fetching paginated bookings with status: {}", status);
-        return bookingRepository.findByStatusOrderByBookingDateDesc(status, pageable);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated bookings with status: {}", status);
+        return withSeats(bookingRepository.findByStatusOrderByBookingDateDesc(status, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Booking> getBookingsByCustomerPaginated(String customerEmail, Pageable pageable) {
-        log.info("Fetching paginated bookings for customer: {}", customerEmail);
-        return bookingRepository.findByCustomerEmailOrderByBookingDateDesc(customerEmail, pageable);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated bookings for customer: {}", customerEmail);
+        return withSeats(bookingRepository.findByCustomerEmailOrderByBookingDateDesc(customerEmail, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Booking> getBookingsByStatusAfter(BookingStatus status, String cursor, int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings with status: {} after cursor: {}", status, cursor);
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        PageCursor after = decodeCursor(cursor);
+        List<Booking> rows = after == null
+                ? bookingRepository.findFirstPageByStatus(status, limit)
+                : bookingRepository.findPageByStatusAfter(status, after.timestamp(), after.id(), limit);
+        return toCursorPage(withSeats(rows), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Booking> getBookingsByCustomerAfter(String customerEmail, String cursor, int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching bookings for customer: {} after cursor: {}", customerEmail, cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        PageCursor after = decodeCursor(cursor);
+        List<Booking> rows = after == null
+                ? bookingRepository.findFirstPageByCustomerEmail(customerEmail, limit)
+                : bookingRepository.findPageByCustomerEmailAfter(customerEmail, after.timestamp(), after.id(), limit);
+        return toCursorPage(withSeats(rows), size);
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BookingValidationException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    // Bookings are serialized after the transaction has ended, so paged results load their seats
+    // here; touching one booking's collection batch-loads the collections of the rest
+    private <T extends Iterable<Booking>> T withSeats(T bookings) {
+        bookings.forEach(booking -> Hibernate.initialize(booking.getSeatNumbers()));
+        return bookings;
+    }
+
+    private CursorPage<Booking> toCursorPage(List<Booking> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Booking> items = hasMore ? rows.subList(0, size) : rows;
+        Booking last = hasMore ? items.get(items.size() - 1) : null;
+        return CursorPage.<Booking>builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(last != null ? new PageCursor(last.getBookingDate(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
+    @RetryOnOptimisticLock
     public boolean confirmBooking(Long bookingId, String paymentId) {
         log.info("Confirming booking: {} with payment: {}", bookingId, paymentId);
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
 
+        if (bookingExpiryScheduler.isHoldExpired(booking)) {
+            throw new BookingValidationException("Payment window has expired for booking: " + bookingId);
+        }
+
+        BookingRollups.Contribution before = bookingRollups.contributionOf(booking);
         booking.setPaymentId(paymentId);
         booking.confirmBooking();
         bookingRepository.save(booking);
+        bookingRollups.recordAfterCommit(before, booking);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public boolean confirmBooking(String bookingReference, String paymentId) {
         log.info("Confirming booking: {} with payment: {}", bookingReference, paymentId);
         Booking booking = bookingRepository.findByBookingReference(bookingReference)
             .orElseThrow(() -> new BookingNotFoundException("Booking not found with reference: " + bookingReference));
 
+        if (bookingExpiryScheduler.isHoldExpired(booking)) {
+            throw new BookingValidationException("Payment window has expired for booking: " + bookingReference);
+        }
+
+        BookingRollups.Contribution before = bookingRollups.contributionOf(booking);
         booking.setPaymentId(paymentId);
         booking.confirmBooking();
         bookingRepository.save(booking);
+        bookingRollups.recordAfterCommit(before, booking);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public boolean cancelBooking(Long bookingId, String reason) {
         log.info("Cancelling booking: {} for reason: {}", bookingId, reason);
         Booking booking = bookingRepository.findById(bookingId)
@@ -242,12 +338,15 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingCancellationException("Booking cannot be cancelled. Check cancellation policy.");
         }
 
+        BookingRollups.Contribution before = bookingRollups.contributionOf(booking);
         booking.cancelBooking(reason);
         bookingRepository.save(booking);
+        bookingRollups.recordAfterCommit(before, booking);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public boolean cancelBooking(String bookingReference, String reason) {
         log.info("Cancelling booking: {} for reason: {}", bookingReference, reason);
         Booking booking = bookingRepository.findByBookingReference(bookingReference)
@@ -257,46 +356,37 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingCancellationException("Booking cannot be cancelled. Check cancellation policy.");
         }
 
+        BookingRollups.Contribution before = bookingRollups.contributionOf(booking);
         booking.cancelBooking(reason);
         bookingRepository.save(booking);
+        bookingRollups.recordAfterCommit(before, booking);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public boolean refundBooking(Long bookingId) {
         log.info("Refunding booking: {}", bookingId);
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
 
+        BookingRollups.Contribution before = bookingRollups.contributionOf(booking);
         booking.refundBooking();
         bookingRepository.save(booking);
+        bookingRollups.recordAfterCommit(before, booking);
         return true;
     }
 
     @Override
-    @Scheduled(fixedRate = 1800000) // Run every 30 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void expireOldBookings() {
-        log.info("Running scheduled task to expire old bookings");
-        LocalDateTime expireTime = LocalDateTime.now().minusMinutes(15); // 15 minute payment window
-        List<Booking> expiredBookings = bookingRepository.findExpiredBookings(BookingStatus.PENDING, expireTime);
-
-        for (Booking booking : expiredBookings) {
-            booking.setStatus(BookingStatus.EXPIRED);
-            booking.setUpdatedAt(LocalDateTime.now());
-        }
-
-        if (!expiredBookings.isEmpty()) {
-            bookingRepository.saveAll(expiredBookings);
-            log.info("Expired {} bookings", expiredBookings.size());
-        }
+        log.info("Expiring bookings past their payment window");
+        bookingExpiryScheduler.sweep();
     }
 
     @Override
     public String generateBookingReference() {
-        String prefix = "BKG";
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uuid = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return prefix + "-" + timestamp + "-" + uuid;
+        return referenceGenerator.next();
     }
 
     @Override
@@ -339,28 +429,55 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public Long getBookingCountByMovie(Long movieId) {
-        log.info("Getting booking count for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for movie: {}", movieId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getBookingCountByMovie(movieId);
+        }
         return bookingRepository.countByMovieIdAndStatus(movieId, BookingStatus.CONFIRMED);
     }
 
+    // Sold bookings per movie, for callers that rank the whole catalog
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getBookingCountsByMovie() {
+        log.info(SampledLogFilter.SAMPLED, "Getting booking counts for all movies");
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getSoldCountsByMovie();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : bookingRepository.countGroupedByMovieId(BookingRollups.SOLD_STATUSES)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long getBookingCountByTheater(Long theaterId) {
-        log.info("Getting booking count for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for theater: {}", theaterId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getBookingCountByTheater(theaterId);
+        }
         return bookingRepository.countByTheaterIdAndStatus(theaterId, BookingStatus.CONFIRMED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getBookingCountByShowtime(Long showtimeId) {
-        log.info("Getting booking count for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Getting booking count for showtime: {}", showtimeId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getBookingCountByShowtime(showtimeId);
+        }
         return bookingRepository.countByShowtimeIdAndStatus(showtimeId, BookingStatus.CONFIRMED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Double getRevenueByMovie(Long movieId) {
-        log.info("Getting revenue for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for movie: {}", movieId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getRevenueByMovie(movieId);
+        }
         Double revenue = bookingRepository.sumRevenueByMovieIdAndPaymentStatus(movieId, Booking.PaymentStatus.COMPLETED);
         return revenue != null ? revenue : 0.0;
     }
@@ -368,7 +485,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public Double getRevenueByTheater(Long theaterId) {
-        log.info("Getting revenue for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for theater: {}", theaterId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getRevenueByTheater(theaterId);
+        }
         Double revenue = bookingRepository.sumRevenueByTheaterIdAndPaymentStatus(theaterId, Booking.PaymentStatus.COMPLETED);
         return revenue != null ? revenue : 0.0;
     }
@@ -376,7 +496,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public Long getTotalSeatsByMovie(Long movieId) {
-        log.info("Getting total seats booked for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting total seats booked for movie: {}", movieId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getSeatsByMovie(movieId);
+        }
         Long seats = bookingRepository.sumSeatsByMovieIdAndStatus(movieId, BookingStatus.CONFIRMED);
         return seats != null ? seats : 0L;
     }
@@ -384,7 +507,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public Long getTotalSeatsByTheater(Long theaterId) {
-        log.info("Getting total seats booked for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting total seats booked for theater: {}", theaterId);
+        if (bookingRollups.isReady()) {
+            return bookingRollups.getSeatsByTheater(theaterId);
+        }
         Long seats = bookingRepository.sumSeatsByTheaterIdAndStatus(theaterId, BookingStatus.CONFIRMED);
         return seats != null ? seats : 0L;
     }
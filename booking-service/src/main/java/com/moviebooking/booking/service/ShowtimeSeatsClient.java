@@ -0,0 +1,61 @@
+package com.moviebooking.booking.service;
+
+import com.moviebooking.booking.exception.ShowtimeServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Seat release goes through PATCH, which the default RestTemplate request factory cannot
+// send, so this talks to the showtime service with the JDK client instead
+@Component
+@Slf4j
+public class ShowtimeSeatsClient {
+
+    private final HttpClient httpClient;
+    private final String showtimeServiceUrl;
+    private final Duration timeout;
+
+    public ShowtimeSeatsClient(
+            @Value("${booking.showtime-service.url:http://localhost:8082/showtime-service}") String showtimeServiceUrl,
+            @Value("${booking.showtime-service.timeout-millis:2000}") long timeoutMillis) {
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.showtimeServiceUrl = showtimeServiceUrl;
+    }
+
+    // False when the showtime service rejects the release, e.g. for an unknown showtime;
+    // throws when it cannot be reached or fails, in which case the release can be retried
+    public boolean releaseSeats(Long showtimeId, int seats) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(showtimeServiceUrl + "/api/showtimes/" + showtimeId + "/release-seats?seats=" + seats))
+                .timeout(timeout)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new ShowtimeServiceException("Failed to release seats for showtime " + showtimeId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShowtimeServiceException("Interrupted releasing seats for showtime " + showtimeId, e);
+        }
+        int status = response.statusCode();
+        if (status >= 500) {
+            throw new ShowtimeServiceException("Showtime service returned " + status + " releasing seats for showtime " + showtimeId);
+        }
+        if (status >= 400) {
+            log.warn("Showtime service rejected releasing {} seats for showtime {}: {} {}",
+                    seats, showtimeId, status, response.body());
+            return false;
+        }
+        return true;
+    }
+}
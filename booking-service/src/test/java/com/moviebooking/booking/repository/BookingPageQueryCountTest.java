@@ -0,0 +1,110 @@
+package com.moviebooking.booking.repository;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A page of bookings with their seats must cost the same number of statements however many
+// bookings it holds: the rows, the count and one batch for the seats, never one per booking.
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class BookingPageQueryCountTest {
+
+    private static final int BOOKINGS = 60;
+    private static final String CUSTOMER = "pages@example.com";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BOOKINGS; i++) {
+            entityManager.persist(booking(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statusPagesCostTheSameStatementsForOneAndFiftyBookings() {
+        Function<Integer, Page<Booking>> page = size ->
+                bookingRepository.findByStatusOrderByBookingDateDesc(BookingStatus.CONFIRMED, PageRequest.of(0, size));
+        assertEquals(statementsFor(page, 1), statementsFor(page, 50));
+    }
+
+    @Test
+    void customerPagesCostTheSameStatementsForOneAndFiftyBookings() {
+        Function<Integer, Page<Booking>> page = size ->
+                bookingRepository.findByCustomerEmailOrderByBookingDateDesc(CUSTOMER, PageRequest.of(0, size));
+        assertEquals(statementsFor(page, 1), statementsFor(page, 50));
+    }
+
+    @Test
+    void cursorPagesCostTheSameStatementsForOneAndFiftyBookings() {
+        Function<Integer, List<Booking>> page = size ->
+                bookingRepository.findFirstPageByStatus(BookingStatus.CONFIRMED, PageRequest.of(0, size));
+        assertEquals(statementsFor(page, 1), statementsFor(page, 50));
+    }
+
+    // Loads a page from a cold persistence context and reads every booking's seats, as the
+    // service does before the bookings leave the transaction
+    private long statementsFor(Function<Integer, ? extends Iterable<Booking>> page, int size) {
+        entityManager.clear();
+        statistics.clear();
+        int bookings = 0;
+        for (Booking booking : page.apply(size)) {
+            assertEquals(2, booking.getSeatNumbers().size());
+            bookings++;
+        }
+        assertEquals(size, bookings);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Booking booking(int i) {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking();
+        booking.setBookingReference("BK-PAGE-" + i);
+        booking.setMovieId(1L);
+        booking.setTheaterId(1L);
+        booking.setShowtimeId(1L);
+        booking.setCustomerName("Customer " + i);
+        booking.setCustomerEmail(CUSTOMER);
+        booking.setNumberOfSeats(2);
+        booking.setSeatNumbers(List.of("A" + (2 * i + 1), "A" + (2 * i + 2)));
+        booking.setTotalAmount(500.0);
+        booking.setTaxAmount(90.0);
+        booking.setFinalAmount(590.0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setPaymentMethod(Booking.PaymentMethod.UPI);
+        booking.setShowDateTime(now.plusDays(1));
+        booking.setBookingDate(now.minusMinutes(i));
+        return booking;
+    }
+}
@@ -0,0 +1,111 @@
+package com.moviebooking.booking.service;
+
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.BookingStatus;
+import com.moviebooking.booking.exception.ShowtimeServiceException;
+import com.moviebooking.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "booking.expiry.sweep-interval-ms=3600000")
+@ActiveProfiles("test")
+class BookingExpirySchedulerTest {
+
+    private static final long SHOWTIME_ID = 7;
+
+    @Autowired
+    private BookingExpiryScheduler scheduler;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ShowtimeSeatsClient showtimeSeatsClient;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        reset(showtimeSeatsClient);
+    }
+
+    @Test
+    void expiredSeatsAreReleasedOnceAndTheFlagCleared() {
+        List<Long> ids = List.of(bookingRepository.save(pendingBooking(2)).getId(),
+                bookingRepository.save(pendingBooking(3)).getId());
+        when(showtimeSeatsClient.releaseSeats(SHOWTIME_ID, 5)).thenReturn(true);
+
+        assertEquals(2, scheduler.sweep());
+
+        verify(showtimeSeatsClient).releaseSeats(SHOWTIME_ID, 5);
+        for (Long id : ids) {
+            Booking booking = bookingRepository.findById(id).orElseThrow();
+            assertEquals(BookingStatus.EXPIRED, booking.getStatus());
+            assertFalse(booking.isSeatsReleasePending());
+        }
+
+        clearInvocations(showtimeSeatsClient);
+        assertEquals(0, scheduler.sweep());
+        verify(showtimeSeatsClient, never()).releaseSeats(SHOWTIME_ID, 5);
+    }
+
+    // A release that fails stays on the booking, so an instance started afterwards picks it up
+    @Test
+    void failedReleasesSurviveARestart() {
+        Long id = bookingRepository.save(pendingBooking(4)).getId();
+        when(showtimeSeatsClient.releaseSeats(SHOWTIME_ID, 4))
+                .thenThrow(new ShowtimeServiceException("Showtime service returned 503"));
+
+        assertEquals(1, scheduler.sweep());
+        assertTrue(bookingRepository.findById(id).orElseThrow().isSeatsReleasePending());
+
+        reset(showtimeSeatsClient);
+        when(showtimeSeatsClient.releaseSeats(SHOWTIME_ID, 4)).thenReturn(true);
+        BookingExpiryScheduler restarted = new BookingExpiryScheduler(
+                bookingRepository, showtimeSeatsClient, transactionManager, 500, 900);
+        assertEquals(0, restarted.sweep());
+
+        verify(showtimeSeatsClient).releaseSeats(SHOWTIME_ID, 4);
+        assertFalse(bookingRepository.findById(id).orElseThrow().isSeatsReleasePending());
+    }
+
+    private static Booking pendingBooking(int seats) {
+        LocalDateTime madeAt = LocalDateTime.now().minusHours(1);
+        Booking booking = new Booking();
+        booking.setBookingReference("BK-EXPIRY-" + System.nanoTime());
+        booking.setMovieId(1L);
+        booking.setTheaterId(1L);
+        booking.setShowtimeId(SHOWTIME_ID);
+        booking.setCustomerName("Customer");
+        booking.setCustomerEmail("expiry@example.com");
+        booking.setNumberOfSeats(seats);
+        booking.setTotalAmount(250.0 * seats);
+        booking.setTaxAmount(45.0 * seats);
+        booking.setFinalAmount(295.0 * seats);
+        booking.setPaymentMethod(Booking.PaymentMethod.UPI);
+        booking.setShowDateTime(LocalDateTime.now().plusDays(1));
+        booking.setBookingDate(madeAt);
+        booking.setCreatedAt(madeAt);
+        return booking;
+    }
+}
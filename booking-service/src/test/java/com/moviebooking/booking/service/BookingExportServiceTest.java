@@ -0,0 +1,117 @@
+package com.moviebooking.booking.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebooking.booking.entity.Booking;
+import com.moviebooking.booking.enums.ExportFormat;
+import com.moviebooking.booking.repository.BookingRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exports run on their own pool, with cursor fetch set there only, and write every booking in
+// the range with its seats across several batches
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "booking.export.batch-size=3")
+@ActiveProfiles("test")
+class BookingExportServiceTest {
+
+    private static final LocalDateTime MADE_AT = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("exportDataSource")
+    private HikariDataSource exportDataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+    }
+
+    @Test
+    void cursorFetchIsSetOnTheExportPoolOnly() {
+        assertNotSame(dataSource, exportDataSource);
+        assertEquals("true", exportDataSource.getDataSourceProperties().getProperty("useCursorFetch"));
+        assertTrue(((HikariDataSource) dataSource).getDataSourceProperties().isEmpty());
+        assertTrue(exportDataSource.isReadOnly());
+    }
+
+    @Test
+    void exportsEveryBookingInTheRangeWithItsSeats() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            bookingRepository.save(booking(i, MADE_AT.plusMinutes(i)));
+        }
+        bookingRepository.save(booking(7, MADE_AT.plusDays(2)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = bookingExportService.exportByBookingDate(MADE_AT, MADE_AT.plusDays(1), ExportFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(7, exported);
+        assertEquals(7, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode row = objectMapper.readTree(lines.get(i));
+            assertEquals("Customer " + i, row.get("customerName").asText());
+            assertEquals(List.of("A" + i, "B" + i), List.of(row.get("seatNumbers").get(0).asText(),
+                    row.get("seatNumbers").get(1).asText()));
+        }
+    }
+
+    @Test
+    void csvHasAHeaderAndOneLinePerBooking() {
+        bookingRepository.save(booking(0, MADE_AT));
+        bookingRepository.save(booking(1, MADE_AT));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExportService.exportByShowDate(MADE_AT, MADE_AT.plusDays(2), ExportFormat.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("id,bookingReference,"));
+        assertTrue(lines.get(1).contains(",A0 B0,"));
+    }
+
+    private static Booking booking(int i, LocalDateTime madeAt) {
+        Booking booking = new Booking();
+        booking.setBookingReference("BK-EXPORT-" + i + "-" + System.nanoTime());
+        booking.setMovieId(1L);
+        booking.setTheaterId(1L);
+        booking.setShowtimeId(1L);
+        booking.setCustomerName("Customer " + i);
+        booking.setCustomerEmail("export@example.com");
+        booking.setNumberOfSeats(2);
+        booking.setSeatNumbers(List.of("A" + i, "B" + i));
+        booking.setTotalAmount(500.0);
+        booking.setTaxAmount(90.0);
+        booking.setFinalAmount(590.0);
+        booking.setPaymentMethod(Booking.PaymentMethod.UPI);
+        booking.setShowDateTime(MADE_AT.plusDays(1));
+        booking.setBookingDate(madeAt);
+        booking.setCreatedAt(madeAt);
+        return booking;
+    }
+}
@@ -0,0 +1,59 @@
+package com.moviebooking.common.config;
+
+import com.moviebooking.common.service.IdempotencyStore;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+// Keeps the raw body of requests sent with an Idempotency-Key, so IdempotencyStore compares a
+// retry with what the client sent the first time. The deserialized entity will not do: its
+// server-side defaults, such as createdAt, differ on every call.
+@ControllerAdvice
+public class IdempotencyRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String BODY_ATTRIBUTE = IdempotencyRequestBodyAdvice.class.getName() + ".body";
+
+    // The body of the current request, or null when it had none or no Idempotency-Key
+    public static byte[] currentBody() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (byte[]) attributes.getAttribute(BODY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || !inputMessage.getHeaders().containsKey(IdempotencyStore.HEADER)) {
+            return inputMessage;
+        }
+        byte[] body = inputMessage.getBody().readAllBytes();
+        attributes.setAttribute(BODY_ATTRIBUTE, body, RequestAttributes.SCOPE_REQUEST);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+}
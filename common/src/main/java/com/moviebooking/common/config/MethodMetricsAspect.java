@@ -0,0 +1,118 @@
+package com.moviebooking.common.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every public method of the @Service beans as service.method, tagged with the class,
+// the method and the exception it threw ("None" on success, as Spring Boot tags it), so
+// failures such as a validation exception are counted apart from the calls that went
+// through. Repository calls are already timed by Spring Boot as
+// spring.data.repository.invocations; this adds repository.rows, the number of
+// rows each query method returned. Histograms and SLO buckets for all three are configured
+// in each service's application.properties. Outermost of the aspects, so a retried write is
+// timed once with all of its attempts.
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MethodMetricsAspect {
+
+    private static final String NONE = "None";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<RowsKey, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.moviebooking..*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        Class<?> failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e.getClass();
+            throw e;
+        } finally {
+            timer(joinPoint.getTarget().getClass(), method, failure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object countRepositoryRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        long count = rowCount(result);
+        if (count >= 0) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            rows.computeIfAbsent(new RowsKey(joinPoint.getTarget().getClass(), method), this::rowsSummary).record(count);
+        }
+        return result;
+    }
+
+    // Rows in the result of a query method, or -1 for results that are not rows: counts,
+    // flags, streams that have not been read yet, and the entity returned by a save
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private Timer timer(Class<?> type, Method method, Class<?> failure) {
+        return timers.computeIfAbsent(new TimerKey(type, method, failure), key -> Timer.builder("service.method")
+                .description("Latency of service methods")
+                .tag("class", type.getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", failure == null ? NONE : failure.getSimpleName())
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary rowsSummary(RowsKey key) {
+        return DistributionSummary.builder("repository.rows")
+                .description("Rows returned by repository query methods")
+                .baseUnit("rows")
+                .tag("repository", repositoryName(key.type()))
+                .tag("method", key.method().getName())
+                .register(meterRegistry);
+    }
+
+    // The application's repository interface behind a Spring Data proxy
+    private static String repositoryName(Class<?> proxyType) {
+        for (Class<?> candidate : proxyType.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith("com.moviebooking.")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return proxyType.getSimpleName();
+    }
+
+    private record TimerKey(Class<?> type, Method method, Class<?> failure) {
+    }
+
+    private record RowsKey(Class<?> type, Method method) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.moviebooking.common.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Counts optimistic-lock conflicts and, when enabled, re-runs the losing write. It sits
+// outside the transactional proxy so every attempt starts a new transaction and re-reads
+// the row. Backoff is exponential with full jitter to spread out competing retries. Runs just
+// inside MethodMetricsAspect, which times all attempts of a call together. Each service
+// declares it as a bean with its own <svc>.optimistic-lock.retry settings.
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class OptimisticLockRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean retryEnabled;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry, boolean retryEnabled, int maxAttempts,
+                                     long backoffMillis, long maxBackoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.retryEnabled = retryEnabled;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Around("@annotation(com.moviebooking.common.config.RetryOnOptimisticLock)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        // Inside a caller's transaction only the caller can start over
+        boolean retryable = retryEnabled && !TransactionSynchronizationManager.isActualTransactionActive();
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                counter("optimistic.lock.conflicts", operation).increment();
+                if (!retryable || attempt >= maxAttempts) {
+                    if (retryable) {
+                        counter("optimistic.lock.retries.exhausted", operation).increment();
+                    }
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                log.warn("Optimistic lock conflict in {}, retrying in {}ms (attempt {}/{})",
+                        operation, delay, attempt + 1, maxAttempts);
+                counter("optimistic.lock.retries", operation).increment();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
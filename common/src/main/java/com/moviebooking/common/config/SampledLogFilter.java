@@ -0,0 +1,74 @@
+package com.moviebooking.common.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rate-limits INFO and lower events logged with the SAMPLED marker to permitsPerSecond per
+// logger and message template, so a read logged on every call shows up a few times a second
+// however hot it runs. Only read paths carry the marker; events without it, such as bookings
+// being created, confirmed or cancelled, always pass. Runs before the message is formatted, so
+// a dropped event costs two map lookups and a CAS.
+// WARN and ERROR always pass. Configured in each service's logback-spring.xml; zero turns
+// sampling off.
+public class SampledLogFilter extends TurboFilter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    // Templates are string literals, so this only guards against a message built per call
+    private static final int MAX_TEMPLATES = 4096;
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final ConcurrentMap<Logger, ConcurrentMap<String, AtomicLong>> windows = new ConcurrentHashMap<>();
+    private int permitsPerSecond = 1;
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // No format means an isXxxEnabled() check; those are answered by the level alone
+        if (format == null || permitsPerSecond <= 0 || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || marker == null || !marker.contains(SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        ConcurrentMap<String, AtomicLong> templates = windows.computeIfAbsent(logger, key -> new ConcurrentHashMap<>());
+        AtomicLong window = templates.get(format);
+        if (window == null) {
+            if (templates.size() >= MAX_TEMPLATES) {
+                return FilterReply.NEUTRAL;
+            }
+            window = templates.computeIfAbsent(format, key -> new AtomicLong());
+        }
+        return tryAcquire(window, System.currentTimeMillis() / 1000) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    // The window holds the current second in its high bits and the events let through in
+    // that second in its low COUNT_BITS
+    private boolean tryAcquire(AtomicLong window, long second) {
+        while (true) {
+            long state = window.get();
+            long next;
+            if (state >>> COUNT_BITS != second) {
+                next = (second << COUNT_BITS) | 1;
+            } else if ((state & COUNT_MASK) < permitsPerSecond) {
+                next = state + 1;
+            } else {
+                return false;
+            }
+            if (window.compareAndSet(state, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.moviebooking.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+// Runs request handling, @Scheduled jobs and Spring's async executor on virtual threads, so
+// a burst of requests blocked on JDBC parks cheaply instead of queueing behind Tomcat's 200
+// worker threads. Each service's VirtualThreadConfig extends this, switched on by its
+// <svc>.threads.virtual.enabled property, which the virtual profile sets. Concurrency against
+// the database is then bounded by the Hikari pool alone; see application-virtual.properties
+// for sizing it.
+@Slf4j
+public abstract class VirtualThreadConfigSupport {
+
+    private final ThreadFactory requestThreads;
+    private final Duration pinnedThreshold;
+
+    protected VirtualThreadConfigSupport(int poolSize, long pinnedThresholdMillis) {
+        this.requestThreads = Thread.ofVirtual().name("tomcat-handler-", 0).factory();
+        this.pinnedThreshold = Duration.ofMillis(pinnedThresholdMillis);
+        log.info("Serving requests on virtual threads, at most {} of them on the database at once", poolSize);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(new SimpleAsyncTaskExecutor(requestThreads));
+    }
+
+    // Keeps the pool size from spring.task.scheduling; each of those threads is virtual, so a
+    // job waiting on the database no longer holds a carrier
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.build();
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-", 0).factory());
+        return scheduler;
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("task-", 0).factory());
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(meterRegistry, pinnedThreshold);
+    }
+}
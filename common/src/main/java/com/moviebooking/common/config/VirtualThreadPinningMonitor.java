@@ -0,0 +1,85 @@
+package com.moviebooking.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reports virtual threads that block while pinned to their carrier, most often a socket read
+// inside a synchronized block of the JDBC driver. Streams the JDK's jdk.VirtualThreadPinned
+// event for pins longer than the threshold into the jvm.threads.virtual.pinned timer, and
+// logs the first pin seen at each blocking frame with the application frame that led to it.
+// -Djdk.tracePinnedThreads=full prints every pin with its stack instead, for a local run.
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.moviebooking.";
+    // Blocking frames are code locations, so this only guards against a pathological stack
+    private static final int MAX_REPORTED_SITES = 256;
+
+    private final Timer pinned;
+    private final Duration threshold;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        pinned.record(duration);
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        String blockedAt = null;
+        String calledFrom = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (blockedAt == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                blockedAt = describe(frame);
+            }
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                calledFrom = describe(frame);
+                break;
+            }
+        }
+        if (blockedAt != null && reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(blockedAt)) {
+            log.warn("Virtual thread pinned for {} ms at {}, called from {}; further pins there are only counted",
+                    duration.toMillis(), blockedAt, calledFrom);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
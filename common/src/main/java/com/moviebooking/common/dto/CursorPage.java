@@ -0,0 +1,24 @@
+package com.moviebooking.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private int size;
+
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+}
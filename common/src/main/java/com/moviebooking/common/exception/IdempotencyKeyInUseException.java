@@ -0,0 +1,12 @@
+package com.moviebooking.common.exception;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyInUseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.moviebooking.common.service;
+
+// Crockford's base32: digits and upper-case letters without I, L, O and U, so references
+// survive being read out or typed in. Longs are written as a fixed 13 characters, which keeps
+// the text in the same order as the numbers.
+public final class CrockfordBase32 {
+
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private CrockfordBase32() {
+    }
+
+    public static String encode(long value) {
+        StringBuilder text = new StringBuilder(ENCODED_LENGTH);
+        encodeTo(value, text);
+        return text.toString();
+    }
+
+    public static void encodeTo(long value, StringBuilder target) {
+        for (int shift = (ENCODED_LENGTH - 1) * 5; shift >= 0; shift -= 5) {
+            target.append(ALPHABET[(int) (value >>> shift & 31)]);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.moviebooking.common.service;
+
+// Source of unique, roughly time-ordered 64-bit ids; replace the bean to change the scheme
+public interface IdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,199 @@
+package com.moviebooking.common.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.moviebooking.common.config.IdempotencyRequestBodyAdvice;
+import com.moviebooking.common.entity.IdempotencyRecord;
+import com.moviebooking.common.exception.IdempotencyKeyInUseException;
+import com.moviebooking.common.exception.IdempotencyKeyMismatchException;
+import com.moviebooking.common.exception.InvalidIdempotencyKeyException;
+import com.moviebooking.common.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Responses to writes sent with an Idempotency-Key, so a client retrying after a timeout gets
+// the original response back instead of running the write again. Entries sit in a bounded
+// cache; a request that is still running holds its key only for the in-flight timeout, a
+// completed one for the TTL. With persistence on, completed responses also go to the
+// idempotency_keys table, so replays survive a restart and reach other instances. Failed
+// requests are not remembered, and the key can be used again. Each service declares it as a
+// bean with its own <svc>.idempotency settings and schedules the purge.
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository, ObjectMapper objectMapper,
+                            long ttlHours, long inFlightTimeoutSeconds, long maxEntries, boolean persistent) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.persistent = persistent;
+        long inFlightNanos = Duration.ofSeconds(inFlightTimeoutSeconds).toNanos();
+        long completedNanos = ttl.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.isInFlight() ? inFlightNanos : completedNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Runs the write once per key and scope. A replay with the same payload gets the stored
+    // response; a different payload under the same key, or a replay while the first request
+    // is still running, is rejected. The payload is the raw request body, as recorded by
+    // IdempotencyRequestBodyAdvice, plus any parameters sent outside the body.
+    public <T> ResponseEntity<T> execute(String scope, String idempotencyKey, Object parameters,
+                                         TypeReference<T> responseType, Supplier<ResponseEntity<T>> write) {
+        if (idempotencyKey == null) {
+            return write.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = scope + ":" + idempotencyKey;
+        String requestHash = hash(parameters);
+        Entry inFlight = new Entry(requestHash, null, null);
+        Entry existing = entries.asMap().putIfAbsent(key, inFlight);
+        if (existing == null && persistent) {
+            existing = loadRecord(key, responseType).orElse(null);
+            if (existing != null) {
+                entries.put(key, existing);
+            }
+        }
+        if (existing != null) {
+            return replay(idempotencyKey, existing, requestHash);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = write.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(key, inFlight);
+            throw e;
+        }
+        entries.put(key, new Entry(requestHash, response.getStatusCode(), response.getBody()));
+        if (persistent) {
+            saveRecord(key, requestHash, response);
+        }
+        return response;
+    }
+
+    public void purgeExpiredRecords() {
+        if (!persistent) {
+            return;
+        }
+        int purged = recordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(String idempotencyKey, Entry entry, String requestHash) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency key " + idempotencyKey + " was already used with a different request");
+        }
+        if (entry.isInFlight()) {
+            throw new IdempotencyKeyInUseException(
+                    "A request with idempotency key " + idempotencyKey + " is still being processed");
+        }
+        log.info("Replaying stored response for idempotency key: {}", idempotencyKey);
+        return ResponseEntity.status(entry.status())
+                .header(REPLAYED_HEADER, "true")
+                .body((T) entry.body());
+    }
+
+    private <T> Optional<Entry> loadRecord(String key, TypeReference<T> responseType) {
+        try {
+            return recordRepository.findById(key)
+                    .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                    .map(record -> new Entry(record.getRequestHash(),
+                            HttpStatusCode.valueOf(record.getResponseStatus()),
+                            readBody(record.getResponseBody(), responseType)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up idempotency key {}, treating it as new: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // The write has committed by now, so failing to record it must not fail the response
+    private void saveRecord(String key, String requestHash, ResponseEntity<?> response) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+            recordRepository.save(new IdempotencyRecord(key, requestHash, response.getStatusCode().value(),
+                    body, now, now.plus(ttl)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to persist idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private <T> T readBody(String body, TypeReference<T> responseType) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not readable", e);
+        }
+    }
+
+    private String hash(Object parameters) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] body = IdempotencyRequestBodyAdvice.currentBody();
+            if (body != null) {
+                digest.update(body);
+            }
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(parameters)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash request", e);
+        }
+    }
+
+    // An entry without a status belongs to a request that is still running
+    private record Entry(String requestHash, HttpStatusCode status, Object body) {
+
+        boolean isInFlight() {
+            return status == null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.moviebooking.common.service;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Human-facing references of the form PREFIX-yyyyMMdd-<13 base32 chars>. The id makes them
+// unique; the date is only there for people reading them, and is formatted once a day. Each
+// service declares one with its own prefix in its IdGeneratorConfig.
+@RequiredArgsConstructor
+public class ReferenceGenerator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final IdGenerator idGenerator;
+    private final String prefix;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile Day currentDay = new Day(0, 0, "");
+
+    public String next() {
+        long id = idGenerator.nextId();
+        String day = day(System.currentTimeMillis());
+        StringBuilder reference = new StringBuilder(prefix.length() + day.length() + CrockfordBase32.ENCODED_LENGTH + 2)
+                .append(prefix).append('-').append(day).append('-');
+        CrockfordBase32.encodeTo(id, reference);
+        return reference.toString();
+    }
+
+    private String day(long nowMillis) {
+        Day day = currentDay;
+        if (nowMillis < day.startMillis() || nowMillis >= day.endMillis()) {
+            LocalDate date = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+            day = new Day(date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.format(DAY_FORMAT));
+            currentDay = day;
+        }
+        return day.text();
+    }
+
+    private record Day(long startMillis, long endMillis, String text) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.moviebooking.common.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampledLogFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("com.moviebooking.booking.service.BookingServiceImpl");
+    private final SampledLogFilter filter = new SampledLogFilter();
+
+    @Test
+    void sampledEventsAreLimitedPerTemplate() {
+        logger.setLevel(Level.INFO);
+        filter.setPermitsPerSecond(2);
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(SampledLogFilter.SAMPLED, "Fetching booking with id: {}") == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        // The loop may straddle a second boundary
+        assertTrue(passed >= 2 && passed <= 4, "passed " + passed);
+        assertEquals(FilterReply.NEUTRAL, decide(SampledLogFilter.SAMPLED, "Fetching bookings for movie: {}"));
+    }
+
+    @Test
+    void eventsWithoutTheMarkerAlwaysPass() {
+        logger.setLevel(Level.INFO);
+        filter.setPermitsPerSecond(1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(null, "Cancelling booking with id: {}"));
+        }
+    }
+
+    private FilterReply decide(Marker marker, String format) {
+        return filter.decide(marker, logger, Level.INFO, format, new Object[]{1L}, null);
+    }
+}
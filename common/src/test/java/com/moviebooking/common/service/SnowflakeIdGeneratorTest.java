@@ -0,0 +1,91 @@
+package com.moviebooking.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 100;
+    private static final int IDS_PER_THREAD_PER_ROUND = 125_000;
+    private static final long NODE_ID = 5;
+
+    // 100M ids from one generator shared by THREADS threads. Ids are checked a round at a time
+    // so only one round is held in memory: every round must be free of duplicates, and since
+    // the generator only moves forward, it must start above everything the last one handed out.
+    @Test
+    void idsAreUniqueAndIncreasingPerThreadAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(NODE_ID);
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long[][] ids = new long[THREADS][IDS_PER_THREAD_PER_ROUND];
+        long[] round = new long[THREADS * IDS_PER_THREAD_PER_ROUND];
+        long previousMax = 0;
+        try {
+            for (int r = 0; r < ROUNDS; r++) {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?>[] workers = new Future<?>[THREADS];
+                for (int t = 0; t < THREADS; t++) {
+                    long[] out = ids[t];
+                    workers[t] = threads.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < out.length; i++) {
+                            out[i] = generator.nextId();
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                for (Future<?> worker : workers) {
+                    worker.get(1, TimeUnit.MINUTES);
+                }
+
+                for (int t = 0; t < THREADS; t++) {
+                    long[] out = ids[t];
+                    for (int i = 1; i < out.length; i++) {
+                        if (out[i] <= out[i - 1]) {
+                            fail("Thread " + t + " got " + out[i] + " after " + out[i - 1] + " in round " + r);
+                        }
+                    }
+                    System.arraycopy(out, 0, round, t * out.length, out.length);
+                }
+                Arrays.sort(round);
+                if (round[0] <= previousMax) {
+                    fail("Round " + r + " started at " + round[0] + ", not above " + previousMax);
+                }
+                for (int i = 1; i < round.length; i++) {
+                    if (round[i] == round[i - 1]) {
+                        fail("Duplicate id " + round[i] + " in round " + r);
+                    }
+                }
+                previousMax = round[round.length - 1];
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(NODE_ID, (previousMax >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void idsArePositiveAndCarryTheNodeId() {
+        long id = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID).nextId();
+        assertTrue(id > 0);
+        assertEquals(SnowflakeIdGenerator.MAX_NODE_ID, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,16 @@
+package com.moviebooking.movies.config;
+
+import com.moviebooking.common.config.MethodMetricsAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// The shared aspects from the common module, with this service's settings
+@Configuration
+public class AspectConfig {
+
+    @Bean
+    public MethodMetricsAspect methodMetricsAspect(MeterRegistry meterRegistry) {
+        return new MethodMetricsAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,16 @@
+package com.moviebooking.movies.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cache sizes and TTL come from spring.cache.caffeine.spec. The cache interceptor runs
+// outside the transaction interceptor, so evictions happen only after the write commits.
+@Configuration
+@EnableCaching(order = 0)
+public class CacheConfig {
+
+    public static final String MOVIES = "movies";
+    public static final String ACTIVE_MOVIES = "activeMovies";
+    public static final String GENRES = "genres";
+    public static final String LANGUAGES = "languages";
+}
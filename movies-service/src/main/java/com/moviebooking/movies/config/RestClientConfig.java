@@ -0,0 +1,25 @@
+package com.moviebooking.movies.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestClientConfig {
+
+    @Bean
+    public RestTemplate bookingServiceRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${movies.booking-service.url:http://localhost:8084/booking-service}") String bookingServiceUrl,
+            @Value("${movies.booking-service.timeout-millis:2000}") long timeoutMillis) {
+        return builder
+                .rootUri(bookingServiceUrl)
+                .setConnectTimeout(Duration.ofMillis(timeoutMillis))
+                .setReadTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+    }
+}
@@ -1,5 +1,8 @@
 package com.moviebooking.movies.controller;
 
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.movies.dto.MovieSuggestion;
+import com.moviebooking.movies.dto.MovieSummary;
 import com.moviebooking.movies.entity.Movie;
 import com.moviebooking.movies.service.MovieService;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +17,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -55,7 +59,7 @@ public class MovieController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
-        log.info("Fetching movie with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movie with id: {}", id);
         Optional<Movie> movie = movieService.getMovieById(id);
         return movie.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
@@ -63,16 +67,23 @@ public class MovieController {
 
     @GetMapping
     public ResponseEntity<List<Movie>> getAllActiveMovies() {
-        log.info("Fetching all active movies");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all active movies");
         List<Movie> movies = movieService.getAllActiveMovies();
         return ResponseEntity.ok(movies);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<List<MovieSummary>> getActiveMovieSummaries() {
+        log.info(SampledLogFilter.SAMPLED, "Fetching active movie summaries");
+        List<MovieSummary> movies = movieService.getActiveMovieSummaries();
+        return ResponseEntity.ok(movies);
+    }
+
     @GetMapping("/paginated")
     public ResponseEntity<Page<Movie>> getAllActiveMoviesPaginated(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.info("Fetching paginated movies - page: {}, size: {}", page, size);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated movies - page: {}, size: {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
         Page<Movie> movies = movieService.getAllActiveMoviesPaginated(pageable);
         return ResponseEntity.ok(movies);
@@ -80,28 +91,44 @@ public class MovieController {
 
     @GetMapping("/genre/{genre}")
     public ResponseEntity<List<Movie>> getMoviesByGenre(@PathVariable @NotBlank String genre) {
-        log.info("Fetching movies by genre: {}", genre);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by genre: {}", genre);
         List<Movie> movies = movieService.getMoviesByGenre(genre);
         return ResponseEntity.ok(movies);
     }
 
+    @GetMapping("/genre/{genre}/summary")
+    public ResponseEntity<List<MovieSummary>> getMovieSummariesByGenre(@PathVariable @NotBlank String genre) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching movie summaries by genre: {}", genre);
+        List<MovieSummary> movies = movieService.getMovieSummariesByGenre(genre);
+        return ResponseEntity.ok(movies);
+    }
+
     @GetMapping("/language/{language}")
     public ResponseEntity<List<Movie>> getMoviesByLanguage(@PathVariable @NotBlank String language) {
-        log.info("Fetching movies by language: {}", language);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by language: {}", language);
         List<Movie> movies = movieService.getMoviesByLanguage(language);
         return ResponseEntity.ok(movies);
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<Movie>> searchMoviesByTitle(@RequestParam @NotBlank String title) {
-        log.info("Searching movies by title: {}", title);
+        log.info(SampledLogFilter.SAMPLED, "Searching movies by title: {}", title);
         List<Movie> movies = movieService.searchMoviesByTitle(title);
         return ResponseEntity.ok(movies);
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<MovieSuggestion>> autocompleteTitles(
+            @RequestParam @NotBlank String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        log.info("Autocompleting movie titles for: {}", prefix);
+        List<MovieSuggestion> suggestions = movieService.autocompleteTitles(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @GetMapping("/director/{director}")
     public ResponseEntity<List<Movie>> getMoviesByDirector(@PathVariable @NotBlank String director) {
-        log.info("Fetching movies by director: {}", director);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by director: {}", director);
         List<Movie> movies = movieService.getMoviesByDirector(director);
         return ResponseEntity.ok(movies);
     }
@@ -110,7 +137,7 @@ public class MovieController {
     public ResponseEntity<List<Movie>> getMoviesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching movies between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies between {} and {}", startDate, endDate);
         List<Movie> movies = movieService.getMoviesByDateRange(startDate, endDate);
         return ResponseEntity.ok(movies);
     }
@@ -119,21 +146,21 @@ public class MovieController {
     public ResponseEntity<List<Movie>> getMoviesByDuration(
             @RequestParam @Min(1) Integer minDuration,
             @RequestParam @Min(1) Integer maxDuration) {
-        log.info("Fetching movies with duration between {} and {} minutes", minDuration, maxDuration);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies with duration between {} and {} minutes", minDuration, maxDuration);
         List<Movie> movies = movieService.getMoviesByDuration(minDuration, maxDuration);
         return ResponseEntity.ok(movies);
     }
 
     @GetMapping("/genres")
     public ResponseEntity<List<String>> getAllGenres() {
-        log.info("Fetching all movie genres");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all movie genres");
         List<String> genres = movieService.getAllGenres();
         return ResponseEntity.ok(genres);
     }
 
     @GetMapping("/languages")
     public ResponseEntity<List<String>> getAllLanguages() {
-        log.info("Fetching all movie languages");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all movie languages");
         List<String> languages = movieService.getAllLanguages();
         return ResponseEntity.ok(languages);
     }
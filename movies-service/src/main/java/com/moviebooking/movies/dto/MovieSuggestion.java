@@ -0,0 +1,20 @@
+package com.moviebooking.movies.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSuggestion {
+
+    private Long movieId;
+
+    private String title;
+
+    // Sold bookings, as last polled from the booking service
+    private long popularity;
+}
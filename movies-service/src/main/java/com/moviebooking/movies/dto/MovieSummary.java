@@ -0,0 +1,34 @@
+package com.moviebooking.movies.dto;
+
+import com.moviebooking.movies.entity.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Card-sized view of a movie for listings: no description, cast or audit fields.
+// MovieRepository builds it with constructor expressions, so the field order matters.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSummary {
+
+    private Long id;
+
+    private String title;
+
+    private String genre;
+
+    private Integer duration;
+
+    private String language;
+
+    private Movie.Rating rating;
+
+    private LocalDateTime releaseDate;
+
+    private String posterUrl;
+}
@@ -22,6 +22,7 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "movies")
@@ -52,7 +53,9 @@ public class Movie {
     @Column(nullable = false)
     private String director;
 
+    // Not serialized; code that reads it across many movies loads it in batches
     @ElementCollection
+    @BatchSize(size = 100)
     @JsonIgnore 
     @CollectionTable(name = "movie_cast", joinColumns = @JoinColumn(name = "movie_id"))
     @Column(name = "actor_name")
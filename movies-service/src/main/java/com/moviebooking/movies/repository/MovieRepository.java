@@ -1,5 +1,6 @@
 package com.moviebooking.movies.repository;
 
+import com.moviebooking.movies.dto.MovieSummary;
 import com.moviebooking.movies.entity.Movie;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,9 +22,19 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     List<Movie> findByGenreAndIsActiveTrue(String genre);
 
+    @Query("SELECT new com.moviebooking.movies.dto.MovieSummary(m.id, m.title, m.genre, m.duration, m.language, " +
+           "m.rating, m.releaseDate, m.posterUrl) " +
+           "FROM Movie m WHERE m.isActive = true ORDER BY m.title")
+    List<MovieSummary> findActiveSummaries();
+
+    @Query("SELECT new com.moviebooking.movies.dto.MovieSummary(m.id, m.title, m.genre, m.duration, m.language, " +
+           "m.rating, m.releaseDate, m.posterUrl) " +
+           "FROM Movie m WHERE m.genre = :genre AND m.isActive = true ORDER BY m.title")
+    List<MovieSummary> findActiveSummariesByGenre(@Param("genre") String genre);
+
     List<Movie> findByLanguageAndIsActiveTrue(String language);
 
-    @Query("SELECT m FROM Movie m WHERE m.title LIKE %:title% AND m.isActive = true")
+    @Query("SELECT m FROM Movie m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%')) AND m.isActive = true")
     List<Movie> findByTitleContainingIgnoreCaseAndIsActiveTrue(@Param("title") String title);
 
     List<Movie> findByDirectorAndIsActiveTrue(String director);
@@ -44,4 +55,10 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     @Query("SELECT m FROM Movie m WHERE m.duration BETWEEN :minDuration AND :maxDuration AND m.isActive = true")
     List<Movie> findByDurationBetween(@Param("minDuration") Integer minDuration, @Param("maxDuration") Integer maxDuration);
+
+    @Query("SELECT DISTINCT m FROM Movie m LEFT JOIN FETCH m.cast WHERE m.isActive = true")
+    List<Movie> findAllActiveWithCast();
+
+    @Query("SELECT m.id, m.title FROM Movie m WHERE m.isActive = true")
+    List<Object[]> findActiveTitles();
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.moviebooking.movies.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingCountsClient {
+
+    private static final ParameterizedTypeReference<Map<Long, Long>> COUNTS_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplate bookingServiceRestTemplate;
+
+    // Sold bookings per movie id; movies without bookings are absent
+    public Map<Long, Long> fetchBookingCounts() {
+        Map<Long, Long> counts = bookingServiceRestTemplate
+                .exchange("/api/bookings/movies/counts", HttpMethod.GET, null, COUNTS_TYPE)
+                .getBody();
+        return counts != null ? counts : Map.of();
+    }
+}
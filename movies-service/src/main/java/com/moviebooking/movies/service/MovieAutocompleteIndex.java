@@ -0,0 +1,268 @@
+package com.moviebooking.movies.service;
+
+import com.moviebooking.movies.dto.MovieSuggestion;
+import com.moviebooking.movies.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Title completions ranked by bookings. Every word start of a title is a key, so "kni"
+// completes "The Dark Knight". Keys live in one sorted array, which answers a prefix with two
+// binary searches, and a sparse table over the keys' popularity picks the top k of that range
+// without scanning it. Lookups read an immutable snapshot; writes and popularity updates mark
+// it stale and it is rebuilt on the next refresh tick.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovieAutocompleteIndex {
+
+    private final MovieRepository movieRepository;
+    private final BookingCountsClient bookingCountsClient;
+
+    private final Object rebuildLock = new Object();
+    private final Map<Long, String> titles = new HashMap<>();
+    private volatile Map<Long, Long> popularity = Map.of();
+    // Ids written while the initial load was running; the load must not overwrite them
+    private Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean stale;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public List<MovieSuggestion> complete(String prefix, int limit) {
+        return snapshot.complete(normalize(prefix), limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = movieRepository.findActiveTitles();
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (!touchedDuringLoad.contains(id)) {
+                    titles.put(id, (String) row[1]);
+                }
+            }
+            touchedDuringLoad = null;
+        }
+        rebuild();
+    }
+
+    public void putAfterCommit(Long movieId, String title) {
+        afterCommit(() -> apply(movieId, title));
+    }
+
+    public void removeAfterCommit(Long movieId) {
+        afterCommit(() -> apply(movieId, null));
+    }
+
+    @Scheduled(fixedDelayString = "${movies.autocomplete.popularity-refresh-ms:60000}")
+    public void refreshPopularity() {
+        try {
+            popularity = Map.copyOf(bookingCountsClient.fetchBookingCounts());
+            stale = true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh movie popularity, keeping previous counts: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${movies.autocomplete.rebuild-interval-ms:1000}")
+    public void rebuildIfStale() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    // Serialized so an older build can never replace a newer one
+    private void rebuild() {
+        synchronized (rebuildLock) {
+            Map<Long, String> current;
+            synchronized (this) {
+                stale = false;
+                current = new HashMap<>(titles);
+            }
+            Snapshot rebuilt = Snapshot.build(current, popularity);
+            snapshot = rebuilt;
+            log.debug("Rebuilt autocomplete index with {} movies and {} keys", current.size(), rebuilt.keys.length);
+        }
+    }
+
+    private synchronized void apply(Long movieId, String title) {
+        if (touchedDuringLoad != null) {
+            touchedDuringLoad.add(movieId);
+        }
+        if (title == null) {
+            titles.remove(movieId);
+        } else {
+            titles.put(movieId, title);
+        }
+        stale = true;
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", MovieSearchIndex.tokenize(text));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = build(Map.of(), Map.of());
+
+        private final String[] keys;
+        // Per key: the movie it belongs to, as an index into the movie arrays
+        private final int[] movieOf;
+        private final long[] movieIds;
+        private final String[] movieTitles;
+        private final long[] moviePopularity;
+        // sparse[j][i] is the best key in [i, i + 2^j)
+        private final int[][] sparse;
+
+        private Snapshot(String[] keys, int[] movieOf, long[] movieIds, String[] movieTitles, long[] moviePopularity) {
+            this.keys = keys;
+            this.movieOf = movieOf;
+            this.movieIds = movieIds;
+            this.movieTitles = movieTitles;
+            this.moviePopularity = moviePopularity;
+            this.sparse = buildSparseTable();
+        }
+
+        static Snapshot build(Map<Long, String> titles, Map<Long, Long> popularity) {
+            int movieCount = titles.size();
+            long[] movieIds = new long[movieCount];
+            String[] movieTitles = new String[movieCount];
+            long[] moviePopularity = new long[movieCount];
+            List<Key> keys = new ArrayList<>();
+            int movie = 0;
+            for (Map.Entry<Long, String> entry : titles.entrySet()) {
+                movieIds[movie] = entry.getKey();
+                movieTitles[movie] = entry.getValue();
+                moviePopularity[movie] = popularity.getOrDefault(entry.getKey(), 0L);
+                String normalized = normalize(entry.getValue());
+                int start = normalized.isEmpty() ? -1 : 0;
+                while (start >= 0) {
+                    keys.add(new Key(normalized.substring(start), movie));
+                    int space = normalized.indexOf(' ', start);
+                    start = space < 0 ? -1 : space + 1;
+                }
+                movie++;
+            }
+            keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::movie));
+            return new Snapshot(
+                    keys.stream().map(Key::text).toArray(String[]::new),
+                    keys.stream().mapToInt(Key::movie).toArray(),
+                    movieIds, movieTitles, moviePopularity);
+        }
+
+        List<MovieSuggestion> complete(String prefix, int limit) {
+            if (prefix.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            if (from >= to) {
+                return List.of();
+            }
+            // Best-first over disjoint key ranges: take a range's best key, then split the range
+            // around it. A movie matched through several of its words is only returned once.
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareKeys(a[2], b[2]));
+            ranges.add(new int[] {from, to, best(from, to)});
+            Set<Integer> seen = new HashSet<>();
+            List<MovieSuggestion> suggestions = new ArrayList<>(limit);
+            while (!ranges.isEmpty() && suggestions.size() < limit) {
+                int[] range = ranges.poll();
+                int key = range[2];
+                int movie = movieOf[key];
+                if (seen.add(movie)) {
+                    suggestions.add(MovieSuggestion.builder()
+                            .movieId(movieIds[movie])
+                            .title(movieTitles[movie])
+                            .popularity(moviePopularity[movie])
+                            .build());
+                }
+                if (range[0] < key) {
+                    ranges.add(new int[] {range[0], key, best(range[0], key)});
+                }
+                if (key + 1 < range[1]) {
+                    ranges.add(new int[] {key + 1, range[1], best(key + 1, range[1])});
+                }
+            }
+            return suggestions;
+        }
+
+        // First key not below the given one; keys can repeat when titles do
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Best key in [from, to)
+        private int best(int from, int to) {
+            int level = 31 - Integer.numberOfLeadingZeros(to - from);
+            int left = sparse[level][from];
+            int right = sparse[level][to - (1 << level)];
+            return compareKeys(left, right) <= 0 ? left : right;
+        }
+
+        // More bookings first, then alphabetical, which is key order
+        private int compareKeys(int a, int b) {
+            int byPopularity = Long.compare(moviePopularity[movieOf[b]], moviePopularity[movieOf[a]]);
+            return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+        }
+
+        private int[][] buildSparseTable() {
+            int size = keys.length;
+            int levels = size == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(size);
+            int[][] table = new int[levels][];
+            table[0] = new int[size];
+            for (int i = 0; i < size; i++) {
+                table[0][i] = i;
+            }
+            for (int level = 1; level < levels; level++) {
+                int half = 1 << (level - 1);
+                table[level] = new int[size - (1 << level) + 1];
+                for (int i = 0; i < table[level].length; i++) {
+                    int left = table[level - 1][i];
+                    int right = table[level - 1][i + half];
+                    table[level][i] = compareKeys(left, right) <= 0 ? left : right;
+                }
+            }
+            return table;
+        }
+
+        private record Key(String text, int movie) {
+        }
+    }
+}
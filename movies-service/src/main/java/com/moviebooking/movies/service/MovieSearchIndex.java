@@ -0,0 +1,308 @@
+package com.moviebooking.movies.service;
+
+import com.moviebooking.movies.entity.Movie;
+import com.moviebooking.movies.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Inverted index over the title, director and cast of active movies. Terms are case-folded
+// and stripped of accents, and kept sorted so the last query term can match as a prefix.
+// Each entry keeps a detached copy of its movie, so a search is answered without touching the
+// database. Loaded once at startup and patched by the write paths after their transaction
+// commits.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovieSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DIRECTOR_WEIGHT = 2;
+    private static final int CAST_WEIGHT = 1;
+
+    private final MovieRepository movieRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    // Ids written while the initial load was running; the load must not overwrite them
+    private Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<Movie> movies = movieRepository.findAllActiveWithCast();
+        List<Document> loaded = movies.stream().map(MovieSearchIndex::document).toList();
+        lock.writeLock().lock();
+        try {
+            for (Document document : loaded) {
+                if (!touchedDuringLoad.contains(document.id())) {
+                    put(document);
+                }
+            }
+            touchedDuringLoad = null;
+            ready = true;
+            log.info("Indexed {} movies for search with {} terms", loaded.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The document is built now, while lazy fields can still be read, and applied on commit
+    public void indexAfterCommit(Movie movie) {
+        Document document = Boolean.TRUE.equals(movie.getIsActive()) ? document(movie) : null;
+        afterCommit(() -> apply(movie.getId(), document));
+    }
+
+    public void removeAfterCommit(Long movieId) {
+        afterCommit(() -> apply(movieId, null));
+    }
+
+    // All terms must match; the last one also matches as a prefix. Exact term matches score
+    // double, and fields are weighted title over director over cast. Returns copies of the
+    // indexed movies, best first.
+    public List<Movie> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Integer> matches;
+                if (i < terms.size() - 1) {
+                    matches = exactMatches(terms.get(i));
+                } else if (scores == null) {
+                    matches = prefixMatches(terms.get(i));
+                } else {
+                    // Cheaper to check the remaining candidates than to expand the prefix
+                    matches = prefixMatches(terms.get(i), scores.keySet());
+                }
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((id, score) -> score + matches.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the best limit hits in a heap whose head is the weakest of them
+    private List<Movie> top(Map<Long, Integer> scores, int limit) {
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, Comparator.reverseOrder());
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(documents.get(id), score);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (hit.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        });
+        Movie[] ranked = new Movie[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = copyOf(best.poll().document().movie());
+        }
+        return List.of(ranked);
+    }
+
+    private Map<Long, Integer> exactMatches(String term) {
+        Map<Long, Integer> matches = new HashMap<>();
+        Map<Long, Integer> posting = postings.get(term);
+        if (posting != null) {
+            posting.forEach((id, weight) -> matches.put(id, weight * 2));
+        }
+        return matches;
+    }
+
+    // Reads every term under the prefix, so a short prefix ranks all of its matches; the work
+    // is bounded by the postings under it, at most one per indexed movie and term
+    private Map<Long, Integer> prefixMatches(String prefix) {
+        Map<Long, Integer> matches = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(prefix, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+            int factor = prefixFactor(term, prefix);
+            entry.getValue().forEach((id, weight) -> matches.merge(id, weight * factor, Math::max));
+        }
+        return matches;
+    }
+
+    private Map<Long, Integer> prefixMatches(String prefix, Set<Long> candidates) {
+        Map<Long, Integer> matches = new HashMap<>();
+        for (Long id : candidates) {
+            documents.get(id).terms().forEach((term, weight) -> {
+                if (term.startsWith(prefix)) {
+                    matches.merge(id, weight * prefixFactor(term, prefix), Math::max);
+                }
+            });
+        }
+        return matches;
+    }
+
+    private static int prefixFactor(String term, String prefix) {
+        return term.length() == prefix.length() ? 2 : 1;
+    }
+
+    private void apply(Long movieId, Document document) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(movieId);
+            }
+            remove(movieId);
+            if (document != null) {
+                put(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Document document) {
+        documents.put(document.id(), document);
+        document.terms().forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(), weight));
+    }
+
+    private void remove(Long movieId) {
+        Document previous = documents.remove(movieId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(movieId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Document document(Movie movie) {
+        Map<String, Integer> terms = new HashMap<>();
+        addField(terms, movie.getTitle(), TITLE_WEIGHT);
+        addField(terms, movie.getDirector(), DIRECTOR_WEIGHT);
+        if (movie.getCast() != null) {
+            addField(terms, String.join(" ", movie.getCast()), CAST_WEIGHT);
+        }
+        String sortTitle = movie.getTitle() == null ? "" : fold(movie.getTitle());
+        return new Document(movie.getId(), sortTitle, terms, copyOf(movie));
+    }
+
+    // Detached from the persistence context, so neither side sees the other's changes
+    private static Movie copyOf(Movie movie) {
+        Movie copy = new Movie();
+        copy.setId(movie.getId());
+        copy.setTitle(movie.getTitle());
+        copy.setDescription(movie.getDescription());
+        copy.setGenre(movie.getGenre());
+        copy.setDuration(movie.getDuration());
+        copy.setLanguage(movie.getLanguage());
+        copy.setDirector(movie.getDirector());
+        copy.setCast(movie.getCast() == null ? null : new ArrayList<>(movie.getCast()));
+        copy.setReleaseDate(movie.getReleaseDate());
+        copy.setPosterUrl(movie.getPosterUrl());
+        copy.setTrailerUrl(movie.getTrailerUrl());
+        copy.setRating(movie.getRating());
+        copy.setIsActive(movie.getIsActive());
+        copy.setCreatedAt(movie.getCreatedAt());
+        copy.setUpdatedAt(movie.getUpdatedAt());
+        return copy;
+    }
+
+    // A term found in several fields scores the sum of their weights, but only once per field
+    private static void addField(Map<String, Integer> terms, String value, int weight) {
+        for (String term : new HashSet<>(tokenize(value))) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String fold(String text) {
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Document(Long id, String sortTitle, Map<String, Integer> terms, Movie movie) {
+    }
+
+    // Orders best first: higher score, then title, then id
+    private record Hit(Document document, int score) implements Comparable<Hit> {
+
+        @Override
+        public int compareTo(Hit other) {
+            int order = Integer.compare(other.score, score);
+            if (order == 0) {
+                order = document.sortTitle().compareTo(other.document.sortTitle());
+            }
+            return order != 0 ? order : document.id().compareTo(other.document.id());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.moviebooking.movies.service;
 
+import com.moviebooking.movies.dto.MovieSuggestion;
+import com.moviebooking.movies.dto.MovieSummary;
 import com.moviebooking.movies.entity.Movie;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,10 +24,16 @@ public interface MovieService {
 
     List<Movie> getMoviesByGenre(String genre);
 
+    List<MovieSummary> getActiveMovieSummaries();
+
+    List<MovieSummary> getMovieSummariesByGenre(String genre);
+
     List<Movie> getMoviesByLanguage(String language);
 
     List<Movie> searchMoviesByTitle(String title);
 
+    List<MovieSuggestion> autocompleteTitles(String prefix, int limit);
+
     List<Movie> getMoviesByDirector(String director);
 
     List<Movie> getMoviesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
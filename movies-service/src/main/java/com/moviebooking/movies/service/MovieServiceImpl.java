@@ -1,13 +1,22 @@
 package com.moviebooking.movies.service;
 
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.movies.config.CacheConfig;
+import com.moviebooking.movies.dto.MovieSuggestion;
+import com.moviebooking.movies.dto.MovieSummary;
 import com.moviebooking.movies.entity.Movie;
 import com.moviebooking.movies.exception.MovieNotFoundException;
 import com.moviebooking.movies.repository.MovieRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -21,16 +30,35 @@ import java.util.Optional;
 public class MovieServiceImpl implements MovieService {
 
     private final MovieRepository movieRepository;
+    private final MovieSearchIndex movieSearchIndex;
+    private final MovieAutocompleteIndex movieAutocompleteIndex;
+
+    @Value("${movies.search.max-results:100}")
+    private int searchMaxResults;
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ACTIVE_MOVIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LANGUAGES, allEntries = true)
+    })
     public Movie createMovie(Movie movie) {
         log.info("Creating new movie: {}", movie.getTitle());
         movie.setCreatedAt(LocalDateTime.now());
         movie.setIsActive(true);
-        return movieRepository.save(movie);
+        Movie savedMovie = movieRepository.save(movie);
+        movieSearchIndex.indexAfterCommit(savedMovie);
+        movieAutocompleteIndex.putAfterCommit(savedMovie.getId(), savedMovie.getTitle());
+        return savedMovie;
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ACTIVE_MOVIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LANGUAGES, allEntries = true)
+    })
     public Movie updateMovie(Long id, Movie movie) {
         log.info("Updating movie with id: {}", id);
         Movie existingMovie = movieRepository.findByIdAndIsActiveTrue(id)
@@ -49,95 +77,144 @@ public class MovieServiceImpl implements MovieService {
         existingMovie.setRating(movie.getRating());
         existingMovie.setUpdatedAt(LocalDateTime.now());
 
-        return movieRepository.save(existingMovie);
+        Movie savedMovie = movieRepository.save(existingMovie);
+        movieSearchIndex.indexAfterCommit(savedMovie);
+        movieAutocompleteIndex.putAfterCommit(savedMovie.getId(), savedMovie.getTitle());
+        return savedMovie;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.MOVIES, key = "#id", unless = "#result == null")
     public Optional<Movie> getMovieById(Long id) {
-        log.info("Fetching movie with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movie with id: {}", id);
         return movieRepository.findByIdAndIsActiveTrue(id);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.ACTIVE_MOVIES)
     public List<Movie> getAllActiveMovies() {
-        log.info("Fetching all active movies");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all active movies");
         return movieRepository.findByIsActiveTrue();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Movie> getAllActiveMoviesPaginated(Pageable pageable) {
-        log.info("Fetching paginated active movies");
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated active movies");
         return movieRepository.findByIsActiveTrueOrderByReleaseDateDesc(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Movie> getMoviesByGenre(String genre) {
-        log.info("Fetching movies by genre: {}", genre);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by genre: {}", genre);
         return movieRepository.findByGenreAndIsActiveTrue(genre);
     }
 
+    // Shares the active movies cache under its own key, so the same evictions clear it
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ACTIVE_MOVIES, key = "'summaries'")
+    public List<MovieSummary> getActiveMovieSummaries() {
+        log.info(SampledLogFilter.SAMPLED, "Fetching active movie summaries");
+        return movieRepository.findActiveSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovieSummary> getMovieSummariesByGenre(String genre) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching movie summaries by genre: {}", genre);
+        return movieRepository.findActiveSummariesByGenre(genre);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Movie> getMoviesByLanguage(String language) {
-        log.info("Fetching movies by language: {}", language);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by language: {}", language);
         return movieRepository.findByLanguageAndIsActiveTrue(language);
     }
 
+    // Served from the index once it is loaded, so no transaction or connection is needed
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Movie> searchMoviesByTitle(String title) {
-        log.info("Searching movies by title: {}", title);
-        return movieRepository.findByTitleContainingIgnoreCaseAndIsActiveTrue(title);
+        log.info(SampledLogFilter.SAMPLED, "Searching movies by title: {}", title);
+        if (!movieSearchIndex.isReady()) {
+            return movieRepository.findByTitleContainingIgnoreCaseAndIsActiveTrue(title);
+        }
+        return movieSearchIndex.search(title, searchMaxResults);
+    }
+
+    // Served from memory, so no transaction or connection is needed
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MovieSuggestion> autocompleteTitles(String prefix, int limit) {
+        log.info("Autocompleting movie titles for: {}", prefix);
+        return movieAutocompleteIndex.complete(prefix, limit);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Movie> getMoviesByDirector(String director) {
-        log.info("Fetching movies by director: {}", director);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies by director: {}", director);
         return movieRepository.findByDirectorAndIsActiveTrue(director);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Movie> getMoviesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching movies between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies between {} and {}", startDate, endDate);
         return movieRepository.findByReleaseDateBetweenAndIsActiveTrue(startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Movie> getMoviesByDuration(Integer minDuration, Integer maxDuration) {
-        log.info("Fetching movies with duration between {} and {} minutes", minDuration, maxDuration);
+        log.info(SampledLogFilter.SAMPLED, "Fetching movies with duration between {} and {} minutes", minDuration, maxDuration);
         return movieRepository.findByDurationBetween(minDuration, maxDuration);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.GENRES)
     public List<String> getAllGenres() {
-        log.info("Fetching all movie genres");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all movie genres");
         return movieRepository.findDistinctGenres();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.LANGUAGES)
     public List<String> getAllLanguages() {
-        log.info("Fetching all movie languages");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all movie languages");
         return movieRepository.findDistinctLanguages();
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ACTIVE_MOVIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LANGUAGES, allEntries = true)
+    })
     public void deleteMovie(Long id) {
         log.info("Deleting movie with id: {}", id);
         Movie movie = movieRepository.findById(id)
             .orElseThrow(() -> new MovieNotFoundException("Movie not found with id: " + id));
         movieRepository.delete(movie);
+        movieSearchIndex.removeAfterCommit(id);
+        movieAutocompleteIndex.removeAfterCommit(id);
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ACTIVE_MOVIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LANGUAGES, allEntries = true)
+    })
     public void deactivateMovie(Long id) {
         log.info("Deactivating movie with id: {}", id);
         Movie movie = movieRepository.findById(id)
@@ -145,9 +222,17 @@ public class MovieServiceImpl implements MovieService {
         movie.setIsActive(false);
         movie.setUpdatedAt(LocalDateTime.now());
         movieRepository.save(movie);
+        movieSearchIndex.removeAfterCommit(id);
+        movieAutocompleteIndex.removeAfterCommit(id);
     }
 
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.ACTIVE_MOVIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.GENRES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LANGUAGES, allEntries = true)
+    })
     public void activateMovie(Long id) {
         log.info("Activating movie with id: {}", id);
         Movie movie = movieRepository.findById(id)
@@ -155,5 +240,7 @@ public class MovieServiceImpl implements MovieService {
         movie.setIsActive(true);
         movie.setUpdatedAt(LocalDateTime.now());
         movieRepository.save(movie);
+        movieSearchIndex.indexAfterCommit(movie);
+        movieAutocompleteIndex.putAfterCommit(id, movie.getTitle());
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.moviebooking.movies.repository;
+
+import com.moviebooking.movies.entity.Movie;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A page of movies whose cast is read must cost the same number of statements however many
+// movies it holds: the rows, the count and one batch for the cast, never one per movie.
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MoviePageQueryCountTest {
+
+    private static final int MOVIES = 60;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < MOVIES; i++) {
+            entityManager.persist(movie(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void activePagesCostTheSameStatementsForOneAndFiftyMovies() {
+        assertEquals(statementsFor(1), statementsFor(50));
+    }
+
+    // Loads a page from a cold persistence context and reads every movie's cast
+    private long statementsFor(int size) {
+        entityManager.clear();
+        statistics.clear();
+        int movies = 0;
+        for (Movie movie : movieRepository.findByIsActiveTrueOrderByReleaseDateDesc(PageRequest.of(0, size))) {
+            assertEquals(3, movie.getCast().size());
+            movies++;
+        }
+        assertEquals(size, movies);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Movie movie(int i) {
+        Movie movie = new Movie();
+        movie.setTitle("Movie " + i);
+        movie.setGenre("Drama");
+        movie.setDuration(120);
+        movie.setLanguage("English");
+        movie.setDirector("Director " + i);
+        movie.setCast(List.of("Lead " + i, "Support " + i, "Cameo " + i));
+        movie.setReleaseDate(LocalDateTime.now().minusDays(i));
+        movie.setRating(Movie.Rating.UA);
+        return movie;
+    }
+}
@@ -0,0 +1,61 @@
+package com.moviebooking.showtime.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+// Showtime ids used to come from an IDENTITY column. On MySQL, ddl-auto creates the
+// showtime_seq table for the pooled sequence starting at 1, so on a database that already has
+// showtimes the first inserts would reuse their ids. Moves the sequence past the highest id
+// once the schema is up and before the server takes requests. It only ever moves forward, so
+// instances starting side by side are safe. Databases with native sequences (H2) start empty.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShowtimeSequenceInitializer implements SmartInitializingSingleton {
+
+    static final String SEQUENCE_TABLE = "showtime_seq";
+    // Matches allocationSize on Showtime.id: the pooled optimizer hands out the block below
+    // the value it reads
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!hasSequenceTable()) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM showtimes", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long target = maxId + 1 + ALLOCATION_SIZE;
+        int updated = jdbcTemplate.update("UPDATE " + SEQUENCE_TABLE + " SET next_val = ? WHERE next_val < ?",
+                target, target);
+        if (updated > 0) {
+            log.info("Moved {} to {}, past the highest existing showtime id {}", SEQUENCE_TABLE, target, maxId);
+        }
+    }
+
+    private boolean hasSequenceTable() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{SEQUENCE_TABLE, SEQUENCE_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -1,6 +1,12 @@
 package com.moviebooking.showtime.controller;
 
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.showtime.dto.ScheduleImportResponse;
+import com.moviebooking.showtime.dto.ScheduleSlotRequest;
+import com.moviebooking.showtime.dto.ScheduleValidationResponse;
+import com.moviebooking.showtime.dto.ShowtimeSummary;
 import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.service.ScheduleImportService;
 import com.moviebooking.showtime.service.ShowtimeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,13 +15,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +38,7 @@ import java.util.Optional;
 public class ShowtimeController {
 
     private final ShowtimeService showtimeService;
+    private final ScheduleImportService scheduleImportService;
 
     @PostMapping
     public ResponseEntity<Showtime> createShowtime(@Valid @RequestBody Showtime showtime) {
@@ -37,6 +47,26 @@ public class ShowtimeController {
         return new ResponseEntity<>(createdShowtime, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ScheduleImportResponse> importScheduleJson(InputStream schedule) {
+        ScheduleImportResponse response = scheduleImportService.importJson(schedule);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ScheduleImportResponse> importScheduleCsv(InputStream schedule) {
+        ScheduleImportResponse response = scheduleImportService.importCsv(schedule);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/validate-schedule")
+    public ResponseEntity<ScheduleValidationResponse> validateSchedule(
+            @RequestBody @NotEmpty List<@Valid ScheduleSlotRequest> slots) {
+        log.info(SampledLogFilter.SAMPLED, "Validating schedule of {} showtimes", slots.size());
+        ScheduleValidationResponse response = showtimeService.validateSchedule(slots);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Showtime> updateShowtime(@PathVariable Long id, @Valid @RequestBody Showtime showtime) {
         log.info("Updating showtime with id: {}", id);
@@ -46,7 +76,7 @@ public class ShowtimeController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Showtime> getShowtimeById(@PathVariable Long id) {
-        log.info("Fetching showtime with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime with id: {}", id);
         Optional<Showtime> showtime = showtimeService.getShowtimeById(id);
         return showtime.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
@@ -54,7 +84,7 @@ public class ShowtimeController {
 
     @GetMapping
     public ResponseEntity<List<Showtime>> getAllActiveShowtimes() {
-        log.info("Fetching all active showtimes");
+        log.info(SampledLogFilter.SAMPLED, "Fetching all active showtimes");
         List<Showtime> showtimes = showtimeService.getAllActiveShowtimes();
         return ResponseEntity.ok(showtimes);
     }
@@ -63,7 +93,7 @@ public class ShowtimeController {
     public ResponseEntity<Page<Showtime>> getAllActiveShowtimesPaginated(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.info("Fetching paginated showtimes - page: {}, size: {}", page, size);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated showtimes - page: {}, size: {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
         Page<Showtime> showtimes = showtimeService.getAllActiveShowtimesPaginated(pageable);
         return ResponseEntity.ok(showtimes);
@@ -71,23 +101,37 @@ public class ShowtimeController {
 
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<List<Showtime>> getShowtimesByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Fetching showtimes for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {}", movieId);
         List<Showtime> showtimes = showtimeService.getShowtimesByMovie(movieId);
         return ResponseEntity.ok(showtimes);
     }
 
+    @GetMapping("/movie/{movieId}/summary")
+    public ResponseEntity<List<ShowtimeSummary>> getShowtimeSummariesByMovie(@PathVariable @NotNull Long movieId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime summaries for movie: {}", movieId);
+        List<ShowtimeSummary> showtimes = showtimeService.getShowtimeSummariesByMovie(movieId);
+        return ResponseEntity.ok(showtimes);
+    }
+
     @GetMapping("/theater/{theaterId}")
     public ResponseEntity<List<Showtime>> getShowtimesByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Fetching showtimes for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for theater: {}", theaterId);
         List<Showtime> showtimes = showtimeService.getShowtimesByTheater(theaterId);
         return ResponseEntity.ok(showtimes);
     }
 
+    @GetMapping("/theater/{theaterId}/summary")
+    public ResponseEntity<List<ShowtimeSummary>> getShowtimeSummariesByTheater(@PathVariable @NotNull Long theaterId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime summaries for theater: {}", theaterId);
+        List<ShowtimeSummary> showtimes = showtimeService.getShowtimeSummariesByTheater(theaterId);
+        return ResponseEntity.ok(showtimes);
+    }
+
     @GetMapping("/movie/{movieId}/theater/{theaterId}")
     public ResponseEntity<List<Showtime>> getShowtimesByMovieAndTheater(
             @PathVariable @NotNull Long movieId,
             @PathVariable @NotNull Long theaterId) {
-        log.info("Fetching showtimes for movie: {} at theater: {}", movieId, theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {} at theater: {}", movieId, theaterId);
         List<Showtime> showtimes = showtimeService.getShowtimesByMovieAndTheater(movieId, theaterId);
         return ResponseEntity.ok(showtimes);
     }
@@ -96,7 +140,7 @@ public class ShowtimeController {
     public ResponseEntity<List<Showtime>> getShowtimesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching showtimes between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes between {} and {}", startDate, endDate);
         List<Showtime> showtimes = showtimeService.getShowtimesByDateRange(startDate, endDate);
         return ResponseEntity.ok(showtimes);
     }
@@ -106,7 +150,7 @@ public class ShowtimeController {
             @PathVariable @NotNull Long movieId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching showtimes for movie: {} between {} and {}", movieId, startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {} between {} and {}", movieId, startDate, endDate);
         List<Showtime> showtimes = showtimeService.getShowtimesByMovieAndDateRange(movieId, startDate, endDate);
         return ResponseEntity.ok(showtimes);
     }
@@ -115,7 +159,7 @@ public class ShowtimeController {
     public ResponseEntity<List<Showtime>> getShowtimesByTheaterAndScreen(
             @PathVariable @NotNull Long theaterId,
             @PathVariable String screenNumber) {
-        log.info("Fetching showtimes for theater: {} screen: {}", theaterId, screenNumber);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for theater: {} screen: {}", theaterId, screenNumber);
         List<Showtime> showtimes = showtimeService.getShowtimesByTheaterAndScreen(theaterId, screenNumber);
         return ResponseEntity.ok(showtimes);
     }
@@ -123,14 +167,14 @@ public class ShowtimeController {
     @GetMapping("/available-seats")
     public ResponseEntity<List<Showtime>> getShowtimesWithAvailableSeats(
             @RequestParam @Min(1) Integer minSeats) {
-        log.info("Fetching showtimes with at least {} available seats", minSeats);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes with at least {} available seats", minSeats);
         List<Showtime> showtimes = showtimeService.getShowtimesWithAvailableSeats(minSeats);
         return ResponseEntity.ok(showtimes);
     }
 
     @GetMapping("/type/{showType}")
     public ResponseEntity<List<Showtime>> getShowtimesByType(@PathVariable Showtime.ShowType showType) {
-        log.info("Fetching showtimes of type: {}", showType);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes of type: {}", showType);
         List<Showtime> showtimes = showtimeService.getShowtimesByType(showType);
         return ResponseEntity.ok(showtimes);
     }
@@ -184,14 +228,14 @@ public class ShowtimeController {
 
     @GetMapping("/movie/{movieId}/count")
     public ResponseEntity<Long> getShowtimeCountByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting showtime count for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting showtime count for movie: {}", movieId);
         Long count = showtimeService.getShowtimeCountByMovie(movieId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/theater/{theaterId}/count")
     public ResponseEntity<Long> getShowtimeCountByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting showtime count for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting showtime count for theater: {}", theaterId);
         Long count = showtimeService.getShowtimeCountByTheater(theaterId);
         return ResponseEntity.ok(count);
     }
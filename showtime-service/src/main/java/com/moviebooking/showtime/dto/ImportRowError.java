@@ -0,0 +1,16 @@
+package com.moviebooking.showtime.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+    // 1-based position of the row in the uploaded schedule
+    private int row;
+
+    private String message;
+}
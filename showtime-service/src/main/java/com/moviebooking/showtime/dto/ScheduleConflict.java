@@ -0,0 +1,24 @@
+package com.moviebooking.showtime.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflict {
+
+    // Position of the slot in the submitted schedule
+    private int index;
+
+    // Set when the slot clashes with a showtime that is already scheduled
+    private Long conflictingShowtimeId;
+
+    // Set when the slot clashes with another slot in the same schedule
+    private Integer conflictingIndex;
+
+    private String message;
+}
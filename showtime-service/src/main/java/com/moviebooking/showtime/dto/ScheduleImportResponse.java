@@ -0,0 +1,23 @@
+package com.moviebooking.showtime.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleImportResponse {
+
+    private int totalRows;
+
+    private int imported;
+
+    private int failed;
+
+    private List<ImportRowError> errors;
+}
@@ -0,0 +1,21 @@
+package com.moviebooking.showtime.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleValidationResponse {
+
+    private boolean valid;
+
+    private int slotCount;
+
+    private List<ScheduleConflict> conflicts;
+}
@@ -0,0 +1,43 @@
+package com.moviebooking.showtime.dto;
+
+import com.moviebooking.showtime.entity.Showtime;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeImportRow {
+
+    @NotNull
+    private Long movieId;
+
+    @NotNull
+    private Long theaterId;
+
+    @NotBlank
+    private String screenNumber;
+
+    @NotNull
+    private LocalDateTime startTime;
+
+    @NotNull
+    private LocalDateTime endTime;
+
+    @NotNull
+    @Positive
+    private Integer totalSeats;
+
+    @NotNull
+    @Positive
+    private Double price;
+
+    @NotNull
+    private Showtime.ShowType showType;
+}
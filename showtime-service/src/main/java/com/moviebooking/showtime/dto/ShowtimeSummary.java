@@ -0,0 +1,31 @@
+package com.moviebooking.showtime.dto;
+
+import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.enums.ShowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// What a listing needs to pick a show. Read straight from the table, so availableSeats can
+// trail the in-memory seat counter by one flush interval, the same as the entity listings.
+// Built by constructor expressions in ShowtimeRepository; keep the field order in step.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeSummary {
+
+    private Long id;
+    private Long movieId;
+    private Long theaterId;
+    private String screenNumber;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer availableSeats;
+    private Double price;
+    private Showtime.ShowType showType;
+    private ShowStatus status;
+}
@@ -9,14 +9,18 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "showtimes")
+@Table(name = "showtimes", indexes = {
+    @Index(name = "idx_showtimes_screen_start", columnList = "theaterId, screenNumber, startTime")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Showtime {
 
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "showtime_seq")
+    @SequenceGenerator(name = "showtime_seq", sequenceName = "showtime_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -57,6 +61,9 @@ public class Showtime {
     @Column
     private LocalDateTime updatedAt;
 
+    @Version
+    private long version;
+
     // Helper method to check if seats are available
     public boolean hasAvailableSeats(int requestedSeats) {
         return availableSeats >= requestedSeats;
@@ -1,37 +1,50 @@
 package com.moviebooking.showtime.repository;
 import com.moviebooking.showtime.enums.ShowStatus;
 
+import com.moviebooking.showtime.dto.ShowtimeSummary;
 import com.moviebooking.showtime.entity.Showtime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
 
-    List<Showtime> findByMovieIdAndStatus(Long movieId, Showtime.ShowStatus status);
+    List<Showtime> findByMovieIdAndStatus(Long movieId, ShowStatus status);
 
-    List<Showtime> findByTheaterIdAndStatus(Long theaterId, Showtime.ShowStatus status);
+    List<Showtime> findByTheaterIdAndStatus(Long theaterId, ShowStatus status);
+
+    @Query("SELECT new com.moviebooking.showtime.dto.ShowtimeSummary(s.id, s.movieId, s.theaterId, s.screenNumber, " +
+           "s.startTime, s.endTime, s.availableSeats, s.price, s.showType, s.status) " +
+           "FROM Showtime s WHERE s.movieId = :movieId AND s.status = :status ORDER BY s.startTime")
+    List<ShowtimeSummary> findSummariesByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") ShowStatus status);
+
+    @Query("SELECT new com.moviebooking.showtime.dto.ShowtimeSummary(s.id, s.movieId, s.theaterId, s.screenNumber, " +
+           "s.startTime, s.endTime, s.availableSeats, s.price, s.showType, s.status) " +
+           "FROM Showtime s WHERE s.theaterId = :theaterId AND s.status = :status ORDER BY s.startTime")
+    List<ShowtimeSummary> findSummariesByTheaterIdAndStatus(@Param("theaterId") Long theaterId, @Param("status") ShowStatus status);
 
     @Query("SELECT s FROM Showtime s WHERE s.movieId = :movieId AND s.theaterId = :theaterId AND s.status = :status ORDER BY s.startTime")
     List<Showtime> findByMovieIdAndTheaterIdAndStatus(
         @Param("movieId") Long movieId, 
         @Param("theaterId") Long theaterId, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
     @Query("SELECT s FROM Showtime s WHERE s.startTime BETWEEN :startDate AND :endDate AND s.status = :status ORDER BY s.startTime")
     List<Showtime> findByStartTimeBetweenAndStatus(
         @Param("startDate") LocalDateTime startDate, 
         @Param("endDate") LocalDateTime endDate, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
     @Query("SELECT s FROM Showtime s WHERE s.movieId = :movieId AND s.startTime BETWEEN :startDate AND :endDate AND s.status = :status ORDER BY s.startTime")
@@ -39,45 +52,62 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
         @Param("movieId") Long movieId,
         @Param("startDate") LocalDateTime startDate, 
         @Param("endDate") LocalDateTime endDate, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
     @Query("SELECT s FROM Showtime s WHERE s.theaterId = :theaterId AND s.screenNumber = :screenNumber AND s.status = :status ORDER BY s.startTime")
     List<Showtime> findByTheaterIdAndScreenNumberAndStatus(
         @Param("theaterId") Long theaterId, 
         @Param("screenNumber") String screenNumber, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
     @Query("SELECT s FROM Showtime s WHERE s.availableSeats >= :minSeats AND s.status = :status ORDER BY s.startTime")
     List<Showtime> findByAvailableSeatsGreaterThanEqualAndStatus(
         @Param("minSeats") Integer minSeats, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
     @Query("SELECT s FROM Showtime s WHERE s.showType = :showType AND s.status = :status ORDER BY s.startTime")
     List<Showtime> findByShowTypeAndStatus(
         @Param("showType") Showtime.ShowType showType, 
-        @Param("status") Showtime.ShowStatus status
+        @Param("status") ShowStatus status
     );
 
-    @Query("SELECT s FROM Showtime s WHERE s.movieId = :movieId AND s.theaterId = :theaterId AND " +
-           "((s.startTime BETWEEN :startTime AND :endTime) OR (s.endTime BETWEEN :startTime AND :endTime) OR " +
-           "(s.startTime <= :startTime AND s.endTime >= :endTime))")
-    List<Showtime> findConflictingShowtimes(
-        @Param("movieId") Long movieId,
+    List<Showtime> findByTheaterIdAndScreenNumberAndStatusIn(Long theaterId, String screenNumber, Collection<ShowStatus> statuses);
+
+    // Range scan on idx_showtimes_screen_start; earliestStart bounds how far back it reads
+    @Query("SELECT s FROM Showtime s WHERE s.theaterId = :theaterId AND s.screenNumber = :screenNumber " +
+           "AND s.startTime >= :earliestStart AND s.startTime < :endTime AND s.endTime > :startTime " +
+           "AND s.status IN :statuses")
+    List<Showtime> findOverlapping(
         @Param("theaterId") Long theaterId,
+        @Param("screenNumber") String screenNumber,
+        @Param("earliestStart") LocalDateTime earliestStart,
         @Param("startTime") LocalDateTime startTime,
-        @Param("endTime") LocalDateTime endTime
+        @Param("endTime") LocalDateTime endTime,
+        @Param("statuses") Collection<ShowStatus> statuses
     );
 
-    Page<Showtime> findByStatusOrderByStartTime(Showtime.ShowStatus status, Pageable pageable);
+    Page<Showtime> findByStatusOrderByStartTime(ShowStatus status, Pageable pageable);
 
-    Optional<Showtime> findByIdAndStatus(Long id, Showtime.ShowStatus status);
+    Optional<Showtime> findByIdAndStatus(Long id, ShowStatus status);
 
     @Query("SELECT COUNT(s) FROM Showtime s WHERE s.movieId = :movieId AND s.status = :status")
-    Long countByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") Showtime.ShowStatus status);
+    Long countByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") ShowStatus status);
 
     @Query("SELECT COUNT(s) FROM Showtime s WHERE s.theaterId = :theaterId AND s.status = :status")
-    Long countByTheaterIdAndStatus(@Param("theaterId") Long theaterId, @Param("status") Showtime.ShowStatus status);
+    Long countByTheaterIdAndStatus(@Param("theaterId") Long theaterId, @Param("status") ShowStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Showtime s SET s.availableSeats = :availableSeats, s.status = :status, s.updatedAt = :updatedAt, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.id = :id AND s.status IN :trackedStatuses")
+    int updateSeatCount(
+        @Param("id") Long id,
+        @Param("availableSeats") Integer availableSeats,
+        @Param("status") ShowStatus status,
+        @Param("updatedAt") LocalDateTime updatedAt,
+        @Param("trackedStatuses") Collection<ShowStatus> trackedStatuses
+    );
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.moviebooking.showtime.service;
+
+import com.moviebooking.showtime.dto.ScheduleImportResponse;
+
+import java.io.InputStream;
+
+public interface ScheduleImportService {
+
+    ScheduleImportResponse importJson(InputStream schedule);
+
+    ScheduleImportResponse importCsv(InputStream schedule);
+}
@@ -0,0 +1,317 @@
+package com.moviebooking.showtime.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebooking.showtime.dto.ImportRowError;
+import com.moviebooking.showtime.dto.ScheduleImportResponse;
+import com.moviebooking.showtime.dto.ShowtimeImportRow;
+import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.enums.ShowStatus;
+import com.moviebooking.showtime.exception.ShowtimeConflictException;
+import com.moviebooking.showtime.repository.ShowtimeRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Reads the schedule a row at a time and writes it in chunks, each chunk in one transaction
+// so inserts go out as JDBC batches. Rows are checked against the screen timelines as they
+// are claimed, which also catches clashes within the file. A bad row is reported and skipped.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleImportServiceImpl implements ScheduleImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "movieId", "theaterId", "screenNumber", "startTime", "endTime", "totalSeats", "price", "showType");
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ScreenScheduleIndex screenScheduleIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${showtime.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public ScheduleImportResponse importJson(InputStream schedule) {
+        log.info("Importing showtime schedule from JSON");
+        ImportRun run = new ImportRun();
+        try (MappingIterator<ShowtimeImportRow> rows = objectMapper.readerFor(ShowtimeImportRow.class).readValues(schedule)) {
+            boolean more = true;
+            while (more) {
+                try {
+                    more = rows.hasNextValue();
+                    if (more) {
+                        run.accept(rows.nextValue());
+                    }
+                } catch (JsonParseException e) {
+                    // The rest of the document cannot be read reliably
+                    run.reject("Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    more = false;
+                } catch (JsonMappingException e) {
+                    run.reject("Invalid row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read showtime schedule", e);
+        }
+        return run.finish();
+    }
+
+    @Override
+    public ScheduleImportResponse importCsv(InputStream schedule) {
+        log.info("Importing showtime schedule from CSV");
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(schedule, StandardCharsets.UTF_8))) {
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                return run.finish();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+            }
+            List<String> missing = CSV_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                run.errors.add(new ImportRowError(0, "Missing CSV columns: " + String.join(", ", missing)));
+                return run.finish();
+            }
+
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = readCsvRecord(reader);
+                } catch (EOFException e) {
+                    // The rest of the file is inside the open quote
+                    run.reject("Malformed CSV, import stopped: " + e.getMessage());
+                    break;
+                } catch (IllegalArgumentException e) {
+                    run.reject("Invalid row: " + e.getMessage());
+                    continue;
+                }
+                if (fields == null) {
+                    break;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                ShowtimeImportRow row;
+                try {
+                    row = parseCsvRow(fields, columns);
+                } catch (RuntimeException e) {
+                    run.reject("Invalid row: " + e.getMessage());
+                    continue;
+                }
+                run.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read showtime schedule", e);
+        }
+        return run.finish();
+    }
+
+    // Reads one RFC 4180 record. Quoted fields may hold commas and line breaks, and "" stands
+    // for a quote inside them. Returns null at the end of the input. A quoted field followed by
+    // anything but a separator fails the record once the rest of it has been read.
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+        boolean malformed = false;
+        while (true) {
+            if (inQuotes) {
+                if (c < 0) {
+                    throw new EOFException("unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c < 0 || c == '\n') {
+                fields.add(field.toString());
+                if (malformed) {
+                    throw new IllegalArgumentException("unexpected text after a quoted field");
+                }
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '"' && field.isEmpty() && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else if (quoted) {
+                malformed = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private ShowtimeImportRow parseCsvRow(List<String> fields, Map<String, Integer> columns) {
+        ShowtimeImportRow row = new ShowtimeImportRow();
+        row.setMovieId(Long.valueOf(field(fields, columns, "movieId")));
+        row.setTheaterId(Long.valueOf(field(fields, columns, "theaterId")));
+        row.setScreenNumber(field(fields, columns, "screenNumber"));
+        row.setStartTime(parseDateTime(field(fields, columns, "startTime")));
+        row.setEndTime(parseDateTime(field(fields, columns, "endTime")));
+        row.setTotalSeats(Integer.valueOf(field(fields, columns, "totalSeats")));
+        row.setPrice(Double.valueOf(field(fields, columns, "price")));
+        row.setShowType(Showtime.ShowType.valueOf(field(fields, columns, "showType").toUpperCase(Locale.ROOT)));
+        return row;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        if (index >= fields.size() || fields.get(index).isBlank()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return fields.get(index).trim();
+    }
+
+    // Accepts ISO timestamps as well as the "yyyy-MM-dd HH:mm:ss" form used by the API
+    private static LocalDateTime parseDateTime(String value) {
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private Showtime toShowtime(ShowtimeImportRow row) {
+        Showtime showtime = new Showtime();
+        showtime.setMovieId(row.getMovieId());
+        showtime.setTheaterId(row.getTheaterId());
+        showtime.setScreenNumber(row.getScreenNumber());
+        showtime.setStartTime(row.getStartTime());
+        showtime.setEndTime(row.getEndTime());
+        showtime.setTotalSeats(row.getTotalSeats());
+        showtime.setAvailableSeats(row.getTotalSeats());
+        showtime.setPrice(row.getPrice());
+        showtime.setShowType(row.getShowType());
+        showtime.setStatus(ShowStatus.ACTIVE);
+        showtime.setCreatedAt(LocalDateTime.now());
+        return showtime;
+    }
+
+    private record PendingRow(int rowNumber, ShowtimeImportRow row) {
+    }
+
+    private final class ImportRun {
+
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+
+        void accept(ShowtimeImportRow row) {
+            totalRows++;
+            Set<ConstraintViolation<ShowtimeImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                errors.add(new ImportRowError(totalRows, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+                return;
+            }
+            chunk.add(new PendingRow(totalRows, row));
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        void reject(String message) {
+            totalRows++;
+            errors.add(new ImportRowError(totalRows, message));
+        }
+
+        ScheduleImportResponse finish() {
+            flushChunk();
+            errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+            log.info("Imported {} of {} showtimes, {} rows failed", imported, totalRows, errors.size());
+            return ScheduleImportResponse.builder()
+                    .totalRows(totalRows)
+                    .imported(imported)
+                    .failed(errors.size())
+                    .errors(errors)
+                    .build();
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                persist(chunk);
+            } catch (DataAccessException e) {
+                // One bad insert rolls back the whole chunk; redo it row by row to find it
+                log.warn("Chunk of {} showtimes failed, retrying row by row: {}", chunk.size(), e.getMessage());
+                for (PendingRow pending : chunk) {
+                    try {
+                        persist(List.of(pending));
+                    } catch (DataAccessException rowFailure) {
+                        errors.add(new ImportRowError(pending.rowNumber(),
+                                "Could not save row: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        // Conflicts are only reported once the transaction has committed, so a retried
+        // chunk does not report them twice
+        private void persist(List<PendingRow> rows) {
+            List<ImportRowError> conflicts = new ArrayList<>();
+            Integer saved = transactionTemplate.execute(status -> {
+                List<Showtime> showtimes = new ArrayList<>(rows.size());
+                for (PendingRow pending : rows) {
+                    Showtime showtime = toShowtime(pending.row());
+                    try {
+                        screenScheduleIndex.reserve(showtime);
+                        showtimes.add(showtime);
+                    } catch (ShowtimeConflictException e) {
+                        conflicts.add(new ImportRowError(pending.rowNumber(), e.getMessage()));
+                    }
+                }
+                showtimeRepository.saveAll(showtimes);
+                showtimeRepository.flush();
+                return showtimes.size();
+            });
+            imported += saved == null ? 0 : saved;
+            errors.addAll(conflicts);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.moviebooking.showtime.service;
+
+import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.enums.ShowStatus;
+import com.moviebooking.showtime.exception.ShowtimeConflictException;
+import com.moviebooking.showtime.repository.ShowtimeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-screen timelines of scheduled showtimes, loaded lazily from the repository. Slots are
+// half-open [start, end), so back-to-back shows do not clash. A timeline is sorted by start
+// and remembers its longest slot: anything overlapping [s, e) starts in [s - longest, e),
+// which is a single range scan.
+//
+// The timelines only see writes made through this instance, so they are a fast path. A claim
+// that passes them is confirmed with the same range query against the database, inside the
+// write transaction; showtimes found there but missing here (written by another instance or
+// out of band) are added to the timeline and the claim fails. Two instances claiming the same
+// window at the same moment can still both pass until one of them commits.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScreenScheduleIndex {
+
+    // Cancelled and completed showtimes no longer occupy their screen
+    static final Set<ShowStatus> SCHEDULED_STATUSES = EnumSet.of(ShowStatus.ACTIVE, ShowStatus.HOUSEFULL);
+
+    private final ShowtimeRepository showtimeRepository;
+
+    // A future per screen, so the load runs outside the map and concurrent callers wait for it
+    private final ConcurrentMap<ScreenKey, CompletableFuture<ScreenTimeline>> timelines = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Slot> slotsByShowtime = new ConcurrentHashMap<>();
+    private final AtomicLong slotSequence = new AtomicLong();
+
+    // Returns the ids of scheduled showtimes overlapping the window, except excludeId
+    public List<Long> findConflicts(Long theaterId, String screenNumber, LocalDateTime startTime,
+                                    LocalDateTime endTime, Long excludeId) {
+        ScreenTimeline timeline = timeline(new ScreenKey(theaterId, screenNumber));
+        synchronized (timeline) {
+            return timeline.overlapping(startTime, endTime, excludeId).stream()
+                    .map(slot -> slot.showtimeId)
+                    .toList();
+        }
+    }
+
+    // Claims the showtime's window in the current transaction. The slot is visible to other
+    // requests straight away and is rolled back with the transaction; on commit it replaces
+    // the showtime's previous slot.
+    public void reserve(Showtime showtime) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Schedule reservations require an active transaction");
+        }
+        if (!showtime.getEndTime().isAfter(showtime.getStartTime())) {
+            throw new ShowtimeConflictException("Showtime must end after it starts");
+        }
+        ScreenKey key = new ScreenKey(showtime.getTheaterId(), showtime.getScreenNumber());
+        ScreenTimeline timeline = timeline(key);
+        Slot slot = new Slot(key, showtime.getStartTime(), showtime.getEndTime(), slotSequence.incrementAndGet());
+        slot.showtimeId = showtime.getId();
+        LocalDateTime earliestStart;
+        synchronized (timeline) {
+            if (!timeline.overlapping(slot.start, slot.end, showtime.getId()).isEmpty()) {
+                throw new ShowtimeConflictException("Showtime conflicts with existing schedule");
+            }
+            timeline.add(slot);
+            earliestStart = slot.start.minus(timeline.longest);
+        }
+
+        List<Showtime> unseen = showtimeRepository.findOverlapping(key.theaterId(), key.screenNumber(),
+                earliestStart, slot.start, slot.end, SCHEDULED_STATUSES).stream()
+                .filter(existing -> !existing.getId().equals(showtime.getId()))
+                .toList();
+        if (!unseen.isEmpty()) {
+            remove(slot);
+            adopt(key, timeline, unseen);
+            throw new ShowtimeConflictException("Showtime conflicts with existing schedule");
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    slot.showtimeId = showtime.getId();
+                    Slot previous = slotsByShowtime.put(slot.showtimeId, slot);
+                    if (previous != null) {
+                        remove(previous);
+                    }
+                } else {
+                    remove(slot);
+                }
+            }
+        });
+    }
+
+    public void releaseAfterCommit(Long showtimeId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(showtimeId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(showtimeId);
+            }
+        });
+    }
+
+    private void release(Long showtimeId) {
+        Slot slot = slotsByShowtime.remove(showtimeId);
+        if (slot != null) {
+            remove(slot);
+        }
+    }
+
+    private void remove(Slot slot) {
+        CompletableFuture<ScreenTimeline> loading = timelines.get(slot.key);
+        ScreenTimeline timeline = loading == null ? null : loading.getNow(null);
+        if (timeline != null) {
+            synchronized (timeline) {
+                timeline.slots.remove(slot);
+            }
+        }
+    }
+
+    // Committed showtimes the timeline had not seen; each replaces any older slot of its own
+    private void adopt(ScreenKey key, ScreenTimeline timeline, List<Showtime> showtimes) {
+        for (Showtime showtime : showtimes) {
+            Slot slot = new Slot(key, showtime.getStartTime(), showtime.getEndTime(), slotSequence.incrementAndGet());
+            slot.showtimeId = showtime.getId();
+            synchronized (timeline) {
+                timeline.add(slot);
+            }
+            Slot previous = slotsByShowtime.put(slot.showtimeId, slot);
+            if (previous != null) {
+                remove(previous);
+            }
+        }
+        log.warn("Schedule for theater: {} screen: {} was missing {} showtimes written elsewhere",
+                key.theaterId(), key.screenNumber(), showtimes.size());
+    }
+
+    private ScreenTimeline timeline(ScreenKey key) {
+        CompletableFuture<ScreenTimeline> loading = timelines.get(key);
+        if (loading == null) {
+            CompletableFuture<ScreenTimeline> created = new CompletableFuture<>();
+            loading = timelines.putIfAbsent(key, created);
+            if (loading == null) {
+                try {
+                    created.complete(load(key));
+                } catch (RuntimeException e) {
+                    // Let the next caller try again
+                    timelines.remove(key, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+                return created.join();
+            }
+        }
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private ScreenTimeline load(ScreenKey key) {
+        List<Showtime> showtimes = showtimeRepository.findByTheaterIdAndScreenNumberAndStatusIn(
+                key.theaterId(), key.screenNumber(), SCHEDULED_STATUSES);
+        ScreenTimeline timeline = new ScreenTimeline();
+        for (Showtime showtime : showtimes) {
+            Slot slot = new Slot(key, showtime.getStartTime(), showtime.getEndTime(), slotSequence.incrementAndGet());
+            slot.showtimeId = showtime.getId();
+            timeline.add(slot);
+            slotsByShowtime.put(showtime.getId(), slot);
+        }
+        log.debug("Loaded schedule for theater: {} screen: {} with {} showtimes",
+                key.theaterId(), key.screenNumber(), showtimes.size());
+        return timeline;
+    }
+
+    private record ScreenKey(Long theaterId, String screenNumber) {
+    }
+
+    private static final class Slot {
+
+        private static final Comparator<Slot> ORDER = Comparator
+                .comparing((Slot slot) -> slot.start)
+                .thenComparingLong(slot -> slot.sequence);
+
+        private final ScreenKey key;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+        // Not known until a new showtime's insert commits
+        private volatile Long showtimeId;
+
+        private Slot(ScreenKey key, LocalDateTime start, LocalDateTime end, long sequence) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class ScreenTimeline {
+
+        private final NavigableSet<Slot> slots = new TreeSet<>(Slot.ORDER);
+        // Only ever grows; a stale maximum widens the scan but never misses an overlap
+        private Duration longest = Duration.ZERO;
+
+        void add(Slot slot) {
+            slots.add(slot);
+            Duration length = Duration.between(slot.start, slot.end);
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        List<Slot> overlapping(LocalDateTime start, LocalDateTime end, Long excludeId) {
+            Slot from = new Slot(null, start.minus(longest), start, Long.MIN_VALUE);
+            Slot to = new Slot(null, end, end, Long.MIN_VALUE);
+            List<Slot> overlaps = new ArrayList<>();
+            for (Slot slot : slots.subSet(from, true, to, false)) {
+                if (slot.end.isAfter(start) && (excludeId == null || !excludeId.equals(slot.showtimeId))) {
+                    overlaps.add(slot);
+                }
+            }
+            return overlaps;
+        }
+    }
+}
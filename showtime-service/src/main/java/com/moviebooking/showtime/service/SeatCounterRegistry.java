@@ -0,0 +1,300 @@
+package com.moviebooking.showtime.service;
+
+import com.moviebooking.showtime.entity.Showtime;
+import com.moviebooking.showtime.enums.ShowStatus;
+import com.moviebooking.showtime.exception.InsufficientSeatsException;
+import com.moviebooking.showtime.exception.ShowtimeNotFoundException;
+import com.moviebooking.showtime.repository.ShowtimeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Available-seat counters for bookable showtimes. Reserving and releasing is a CAS on the
+// counter; the row is written behind by flush(). The status is derived from the same value
+// it is written with, so HOUSEFULL/ACTIVE always flip together with the seat count.
+@Component
+@Slf4j
+public class SeatCounterRegistry {
+
+    static final Set<ShowStatus> TRACKED_STATUSES = EnumSet.of(ShowStatus.ACTIVE, ShowStatus.HOUSEFULL);
+
+    // A retired counter is on its way out of the map; callers wait until it is gone and load a
+    // fresh one
+    private static final int RETIRED = -1;
+
+    private final ShowtimeRepository showtimeRepository;
+    private final TransactionTemplate writeTransaction;
+    private final long idleEvictionMillis;
+    private final long retiredWaitMillis;
+
+    private final ConcurrentMap<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+    // Guards writes of the rows and every removal from the map. A lock rather than
+    // synchronized: it is held across database writes, which would pin a virtual thread.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public SeatCounterRegistry(ShowtimeRepository showtimeRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${showtime.seat-counter.idle-eviction-minutes:30}") long idleEvictionMinutes,
+                               @Value("${showtime.seat-counter.retired-wait-ms:5000}") long retiredWaitMillis) {
+        this.showtimeRepository = showtimeRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idleEvictionMillis = idleEvictionMinutes * 60_000;
+        this.retiredWaitMillis = retiredWaitMillis;
+    }
+
+    // Returns the seats left. Showtimes that are not ACTIVE or HOUSEFULL cannot be reserved.
+    public int reserve(Long showtimeId, int seats) {
+        while (true) {
+            SeatCounter counter = counters.computeIfAbsent(showtimeId, this::load);
+            if (counter == null) {
+                throw new ShowtimeNotFoundException("Showtime not found with id: " + showtimeId);
+            }
+            int current = counter.available.get();
+            if (current == RETIRED) {
+                awaitRemoval(showtimeId, counter);
+                continue;
+            }
+            if (current < seats) {
+                throw new InsufficientSeatsException("Not enough available seats. Available: " + current);
+            }
+            if (counter.available.compareAndSet(current, current - seats)) {
+                counter.touch();
+                return current - seats;
+            }
+        }
+    }
+
+    // Returns false when the showtime is not tracked, leaving the release to the caller
+    public boolean release(Long showtimeId, int seats) {
+        while (true) {
+            SeatCounter counter = counters.computeIfAbsent(showtimeId, this::load);
+            if (counter == null) {
+                return false;
+            }
+            int current = counter.available.get();
+            if (current == RETIRED) {
+                awaitRemoval(showtimeId, counter);
+                continue;
+            }
+            if (counter.available.compareAndSet(current, Math.min(current + seats, counter.totalSeats))) {
+                counter.touch();
+                return true;
+            }
+        }
+    }
+
+    // Reads go to the table, which can trail the counter by one flush interval
+    public Showtime overlay(Showtime showtime) {
+        SeatCounter counter = counters.get(showtime.getId());
+        if (counter != null && TRACKED_STATUSES.contains(showtime.getStatus())) {
+            int current = counter.available.get();
+            if (current != RETIRED) {
+                showtime.setAvailableSeats(current);
+                showtime.setStatus(statusFor(current));
+            }
+        }
+        return showtime;
+    }
+
+    // For changes made to the row directly: pending seat changes are written first, and the
+    // counter stays retired until the caller's transaction completes, so reserve() and
+    // release() wait for the changed row instead of loading the one it replaces.
+    public void evict(Long showtimeId) {
+        SeatCounter counter = retireAndFlush(showtimeId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unfence(showtimeId, counter);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unfence(showtimeId, counter);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${showtime.seat-counter.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Long> untracked = new ArrayList<>();
+            Map<SeatCounter, Integer> written = new HashMap<>();
+            try {
+                writeTransaction.executeWithoutResult(status -> counters.forEach((showtimeId, counter) -> {
+                    int current = counter.available.get();
+                    if (current != RETIRED && current != counter.persisted) {
+                        if (write(showtimeId, current)) {
+                            written.put(counter, current);
+                        } else {
+                            untracked.add(showtimeId);
+                        }
+                    }
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush seat counters, will retry: {}", e.getMessage());
+                return;
+            }
+            written.forEach((counter, value) -> counter.persisted = value);
+            untracked.forEach(this::discard);
+            if (!written.isEmpty()) {
+                log.debug("Flushed {} seat counters", written.size());
+            }
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private SeatCounter load(Long showtimeId) {
+        return showtimeRepository.findById(showtimeId)
+                .filter(showtime -> TRACKED_STATUSES.contains(showtime.getStatus()))
+                .map(showtime -> new SeatCounter(showtime.getTotalSeats(), showtime.getAvailableSeats()))
+                .orElse(null);
+    }
+
+    private boolean write(Long showtimeId, int availableSeats) {
+        return showtimeRepository.updateSeatCount(showtimeId, availableSeats, statusFor(availableSeats),
+                LocalDateTime.now(), TRACKED_STATUSES) > 0;
+    }
+
+    // Retires the showtime's counter, or fences the showtime with a retired placeholder when
+    // none is loaded, and writes any seats not yet flushed
+    private SeatCounter retireAndFlush(Long showtimeId) {
+        flushLock.lock();
+        try {
+            SeatCounter counter = counters.computeIfAbsent(showtimeId, id -> SeatCounter.fence());
+            counter.fences++;
+            int current = counter.available.getAndSet(RETIRED);
+            if (current != RETIRED && current != counter.persisted) {
+                try {
+                    writeTransaction.executeWithoutResult(status -> write(showtimeId, current));
+                } catch (RuntimeException e) {
+                    counter.fences--;
+                    counter.available.set(current);
+                    throw e;
+                }
+                counter.persisted = current;
+            }
+            return counter;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void unfence(Long showtimeId, SeatCounter counter) {
+        flushLock.lock();
+        try {
+            if (--counter.fences == 0) {
+                remove(showtimeId, counter);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void discard(Long showtimeId) {
+        flushLock.lock();
+        try {
+            SeatCounter counter = counters.get(showtimeId);
+            if (counter == null || counter.fences > 0) {
+                return;
+            }
+            int current = counter.available.getAndSet(RETIRED);
+            if (current != RETIRED && current != counter.persisted) {
+                log.warn("Discarding unflushed seat count {} for showtime: {}", current, showtimeId);
+            }
+            remove(showtimeId, counter);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        counters.forEach((showtimeId, counter) -> {
+            int current = counter.available.get();
+            if (current != RETIRED && counter.lastAccessMillis < cutoff && current == counter.persisted
+                    && counter.available.compareAndSet(current, RETIRED)) {
+                remove(showtimeId, counter);
+            }
+        });
+    }
+
+    // Only called under the flush lock
+    private void remove(Long showtimeId, SeatCounter counter) {
+        counters.remove(showtimeId, counter);
+        counter.removed.countDown();
+    }
+
+    // Bounded, so a stuck transaction turns into a conflict the caller can retry rather than
+    // a thread parked for good
+    private void awaitRemoval(Long showtimeId, SeatCounter counter) {
+        try {
+            if (!counter.removed.await(retiredWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new OptimisticLockingFailureException("Seat count for showtime " + showtimeId
+                        + " is being changed, try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted waiting for showtime " + showtimeId, e);
+        }
+    }
+
+    private static ShowStatus statusFor(int availableSeats) {
+        return availableSeats == 0 ? ShowStatus.HOUSEFULL : ShowStatus.ACTIVE;
+    }
+
+    private static final class SeatCounter {
+
+        private final int totalSeats;
+        private final AtomicInteger available;
+        private final CountDownLatch removed = new CountDownLatch(1);
+        // Last value written to the row and the evictions holding the counter retired; only
+        // touched under the flush lock
+        private int persisted;
+        private int fences;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        private SeatCounter(int totalSeats, int availableSeats) {
+            this.totalSeats = totalSeats;
+            this.available = new AtomicInteger(availableSeats);
+            this.persisted = availableSeats;
+        }
+
+        private static SeatCounter fence() {
+            return new SeatCounter(0, RETIRED);
+        }
+
+        private void touch() {
+            lastAccessMillis = System.currentTimeMillis();
+        }
+    }
+}
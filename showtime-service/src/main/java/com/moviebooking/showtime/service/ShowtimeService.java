@@ -1,5 +1,8 @@
 package com.moviebooking.showtime.service;
 
+import com.moviebooking.showtime.dto.ScheduleSlotRequest;
+import com.moviebooking.showtime.dto.ScheduleValidationResponse;
+import com.moviebooking.showtime.dto.ShowtimeSummary;
 import com.moviebooking.showtime.entity.Showtime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +27,10 @@ public interface ShowtimeService {
 
     List<Showtime> getShowtimesByTheater(Long theaterId);
 
+    List<ShowtimeSummary> getShowtimeSummariesByMovie(Long movieId);
+
+    List<ShowtimeSummary> getShowtimeSummariesByTheater(Long theaterId);
+
     List<Showtime> getShowtimesByMovieAndTheater(Long movieId, Long theaterId);
 
     List<Showtime> getShowtimesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
@@ -46,7 +53,9 @@ public interface ShowtimeService {
 
     void markAsHousefull(Long id);
 
-    boolean hasConflictingShowtimes(Long movieId, Long theaterId, LocalDateTime startTime, LocalDateTime endTime);
+    boolean hasConflictingShowtimes(Long theaterId, String screenNumber, LocalDateTime startTime, LocalDateTime endTime);
+
+    ScheduleValidationResponse validateSchedule(List<ScheduleSlotRequest> slots);
 
     Long getShowtimeCountByMovie(Long movieId);
 
@@ -1,21 +1,31 @@
 package com.moviebooking.showtime.service;
+import com.moviebooking.common.config.RetryOnOptimisticLock;
+import com.moviebooking.common.config.SampledLogFilter;
 import com.moviebooking.showtime.enums.ShowStatus;
 
+import com.moviebooking.showtime.dto.ScheduleConflict;
+import com.moviebooking.showtime.dto.ScheduleSlotRequest;
+import com.moviebooking.showtime.dto.ScheduleValidationResponse;
+import com.moviebooking.showtime.dto.ShowtimeSummary;
 import com.moviebooking.showtime.entity.Showtime;
 import com.moviebooking.showtime.exception.ShowtimeNotFoundException;
-import com.moviebooking.showtime.exception.ShowtimeConflictException;
-import com.moviebooking.showtime.exception.InsufficientSeatsException;
 import com.moviebooking.showtime.repository.ShowtimeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,28 +34,29 @@ import java.util.Optional;
 public class ShowtimeServiceImpl implements ShowtimeService {
 
     private final ShowtimeRepository showtimeRepository;
+    private final SeatCounterRegistry seatCounterRegistry;
+    private final ScreenScheduleIndex screenScheduleIndex;
 
     @Override
     public Showtime createShowtime(Showtime showtime) {
         log.info("Creating new showtime for movie: {} at theater: {}", showtime.getMovieId(), showtime.getTheaterId());
 
-        // Check for conflicting showtimes
-        if (hasConflictingShowtimes(showtime.getMovieId(), showtime.getTheaterId(), 
-                                   showtime.getStartTime(), showtime.getEndTime())) {
-            throw new ShowtimeConflictException("Showtime conflicts with existing schedule");
-        }
-
         showtime.setCreatedAt(LocalDateTime.now());
         showtime.setAvailableSeats(showtime.getTotalSeats());
-        showtime.setStatus(Showtime.ShowStatus.ACTIVE);
+        showtime.setStatus(ShowStatus.ACTIVE);
+
+        // Claims the screen for this window, failing on any overlapping showtime
+        screenScheduleIndex.reserve(showtime);
 
         return showtimeRepository.save(showtime);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public Showtime updateShowtime(Long id, Showtime showtime) {
         log.info("Updating showtime with id: {}", id);
-        Showtime existingShowtime = showtimeRepository.findByIdAndStatus(id, Showtime.ShowStatus.ACTIVE)
+        seatCounterRegistry.evict(id);
+        Showtime existingShowtime = showtimeRepository.findByIdAndStatus(id, ShowStatus.ACTIVE)
             .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + id));
 
         existingShowtime.setStartTime(showtime.getStartTime());
@@ -56,150 +67,170 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         existingShowtime.setShowType(showtime.getShowType());
         existingShowtime.setUpdatedAt(LocalDateTime.now());
 
+        screenScheduleIndex.reserve(existingShowtime);
+
         return showtimeRepository.save(existingShowtime);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Showtime> getShowtimeById(Long id) {
-        log.info("Fetching showtime with id: {}", id);
-        return showtimeRepository.findByIdAndStatus(id, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime with id: {}", id);
+        // The counter decides between ACTIVE and HOUSEFULL until the row catches up
+        return showtimeRepository.findById(id)
+            .map(seatCounterRegistry::overlay)
+            .filter(showtime -> showtime.getStatus() == ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getAllActiveShowtimes() {
-        log.info("Fetching all active showtimes");
-        return showtimeRepository.findByStatusOrderByStartTime(Showtime.ShowStatus.ACTIVE, Pageable.unpaged()).getContent();
+        log.info(SampledLogFilter.SAMPLED, "Fetching all active showtimes");
+        return showtimeRepository.findByStatusOrderByStartTime(ShowStatus.ACTIVE, Pageable.unpaged()).getContent();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Showtime> getAllActiveShowtimesPaginated(Pageable pageable) {
-        log.info("Fetching paginated active showtimes");
-        return showtimeRepository.findByStatusOrderByStartTime(Showtime.ShowStatus.ACTIVE, pageable);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated active showtimes");
+        return showtimeRepository.findByStatusOrderByStartTime(ShowStatus.ACTIVE, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByMovie(Long movieId) {
-        log.info("Fetching showtimes for movie: {}", movieId);
-        return showtimeRepository.findByMovieIdAndStatus(movieId, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {}", movieId);
+        return showtimeRepository.findByMovieIdAndStatus(movieId, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByTheater(Long theaterId) {
-        log.info("Fetching showtimes for theater: {}", theaterId);
-        return showtimeRepository.findByTheaterIdAndStatus(theaterId, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for theater: {}", theaterId);
+        return showtimeRepository.findByTheaterIdAndStatus(theaterId, ShowStatus.ACTIVE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShowtimeSummary> getShowtimeSummariesByMovie(Long movieId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime summaries for movie: {}", movieId);
+        return showtimeRepository.findSummariesByMovieIdAndStatus(movieId, ShowStatus.ACTIVE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShowtimeSummary> getShowtimeSummariesByTheater(Long theaterId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtime summaries for theater: {}", theaterId);
+        return showtimeRepository.findSummariesByTheaterIdAndStatus(theaterId, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByMovieAndTheater(Long movieId, Long theaterId) {
-        log.info("Fetching showtimes for movie: {} at theater: {}", movieId, theaterId);
-        return showtimeRepository.findByMovieIdAndTheaterIdAndStatus(movieId, theaterId, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {} at theater: {}", movieId, theaterId);
+        return showtimeRepository.findByMovieIdAndTheaterIdAndStatus(movieId, theaterId, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching showtimes between {} and {}", startDate, endDate);
-        return showtimeRepository.findByStartTimeBetweenAndStatus(startDate, endDate, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes between {} and {}", startDate, endDate);
+        return showtimeRepository.findByStartTimeBetweenAndStatus(startDate, endDate, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByMovieAndDateRange(Long movieId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching showtimes for movie: {} between {} and {}", movieId, startDate, endDate);
-        return showtimeRepository.findByMovieIdAndStartTimeBetweenAndStatus(movieId, startDate, endDate, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for movie: {} between {} and {}", movieId, startDate, endDate);
+        return showtimeRepository.findByMovieIdAndStartTimeBetweenAndStatus(movieId, startDate, endDate, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByTheaterAndScreen(Long theaterId, String screenNumber) {
-        log.info("Fetching showtimes for theater: {} screen: {}", theaterId, screenNumber);
-        return showtimeRepository.findByTheaterIdAndScreenNumberAndStatus(theaterId, screenNumber, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes for theater: {} screen: {}", theaterId, screenNumber);
+        return showtimeRepository.findByTheaterIdAndScreenNumberAndStatus(theaterId, screenNumber, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesWithAvailableSeats(Integer minSeats) {
-        log.info("Fetching showtimes with at least {} available seats", minSeats);
-        return showtimeRepository.findByAvailableSeatsGreaterThanEqualAndStatus(minSeats, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes with at least {} available seats", minSeats);
+        return showtimeRepository.findByAvailableSeatsGreaterThanEqualAndStatus(minSeats, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> getShowtimesByType(Showtime.ShowType showType) {
-        log.info("Fetching showtimes of type: {}", showType);
-        return showtimeRepository.findByShowTypeAndStatus(showType, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Fetching showtimes of type: {}", showType);
+        return showtimeRepository.findByShowTypeAndStatus(showType, ShowStatus.ACTIVE);
     }
 
+    // Seat counts are kept by the counter registry and written behind, so reserving and
+    // releasing never load or lock the row
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean reserveSeats(Long showtimeId, Integer seatsToReserve) {
         log.info("Reserving {} seats for showtime: {}", seatsToReserve, showtimeId);
-        Showtime showtime = showtimeRepository.findByIdAndStatus(showtimeId, Showtime.ShowStatus.ACTIVE)
-            .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + showtimeId));
-
-        if (!showtime.hasAvailableSeats(seatsToReserve)) {
-            throw new InsufficientSeatsException("Not enough available seats. Available: " + showtime.getAvailableSeats());
-        }
-
-        showtime.reserveSeats(seatsToReserve);
+        int remaining = seatCounterRegistry.reserve(showtimeId, seatsToReserve);
 
-        // Check if showtime is now housefull
-        if (showtime.getAvailableSeats() == 0) {
-            showtime.setStatus(Showtime.ShowStatus.HOUSEFULL);
+        if (remaining == 0) {
+            log.info("Showtime {} is now housefull", showtimeId);
         }
-
-        showtimeRepository.save(showtime);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean releaseSeats(Long showtimeId, Integer seatsToRelease) {
         log.info("Releasing {} seats for showtime: {}", seatsToRelease, showtimeId);
+        if (seatCounterRegistry.release(showtimeId, seatsToRelease)) {
+            return true;
+        }
+
+        // Cancelled and completed showtimes are not counted in memory
         Showtime showtime = showtimeRepository.findById(showtimeId)
             .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + showtimeId));
-
         showtime.releaseSeats(seatsToRelease);
-
-        // If showtime was housefull, change status back to active
-        if (showtime.getStatus() == Showtime.ShowStatus.HOUSEFULL && showtime.getAvailableSeats() > 0) {
-            showtime.setStatus(Showtime.ShowStatus.ACTIVE);
-        }
-
         showtimeRepository.save(showtime);
         return true;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void cancelShowtime(Long id) {
         log.info("Cancelling showtime with id: {}", id);
+        seatCounterRegistry.evict(id);
         Showtime showtime = showtimeRepository.findById(id)
             .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + id));
-        showtime.setStatus(Showtime.ShowStatus.CANCELLED);
+        showtime.setStatus(ShowStatus.CANCELLED);
         showtime.setUpdatedAt(LocalDateTime.now());
         showtimeRepository.save(showtime);
+        screenScheduleIndex.releaseAfterCommit(id);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void completeShowtime(Long id) {
         log.info("Completing showtime with id: {}", id);
+        seatCounterRegistry.evict(id);
         Showtime showtime = showtimeRepository.findById(id)
             .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + id));
-        showtime.setStatus(Showtime.ShowStatus.COMPLETED);
+        showtime.setStatus(ShowStatus.COMPLETED);
         showtime.setUpdatedAt(LocalDateTime.now());
         showtimeRepository.save(showtime);
+        screenScheduleIndex.releaseAfterCommit(id);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void markAsHousefull(Long id) {
         log.info("Marking showtime as housefull with id: {}", id);
+        seatCounterRegistry.evict(id);
         Showtime showtime = showtimeRepository.findById(id)
             .orElseThrow(() -> new ShowtimeNotFoundException("Showtime not found with id: " + id));
-        showtime.setStatus(Showtime.ShowStatus.HOUSEFULL);
+        showtime.setStatus(ShowStatus.HOUSEFULL);
         showtime.setAvailableSeats(0);
         showtime.setUpdatedAt(LocalDateTime.now());
         showtimeRepository.save(showtime);
@@ -207,23 +238,79 @@ public class ShowtimeServiceImpl implements ShowtimeService {
 
     @Override
     @Transactional(readOnly = true)
-    public boolean hasConflictingShowtimes(Long movieId, Long theaterId, LocalDateTime startTime, LocalDateTime endTime) {
-        log.info("Checking for conflicting showtimes");
-        List<Showtime> conflictingShowtimes = showtimeRepository.findConflictingShowtimes(movieId, theaterId, startTime, endTime);
-        return !conflictingShowtimes.isEmpty();
+    public boolean hasConflictingShowtimes(Long theaterId, String screenNumber, LocalDateTime startTime, LocalDateTime endTime) {
+        log.info(SampledLogFilter.SAMPLED, "Checking for conflicting showtimes");
+        return !screenScheduleIndex.findConflicts(theaterId, screenNumber, startTime, endTime, null).isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduleValidationResponse validateSchedule(List<ScheduleSlotRequest> slots) {
+        log.info(SampledLogFilter.SAMPLED, "Validating schedule of {} showtimes", slots.size());
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+
+        // Against showtimes that are already scheduled
+        for (int i = 0; i < slots.size(); i++) {
+            ScheduleSlotRequest slot = slots.get(i);
+            if (!slot.getEndTime().isAfter(slot.getStartTime())) {
+                conflicts.add(ScheduleConflict.builder()
+                    .index(i)
+                    .message("Showtime must end after it starts")
+                    .build());
+                continue;
+            }
+            for (Long showtimeId : screenScheduleIndex.findConflicts(slot.getTheaterId(), slot.getScreenNumber(),
+                                                                     slot.getStartTime(), slot.getEndTime(), null)) {
+                conflicts.add(ScheduleConflict.builder()
+                    .index(i)
+                    .conflictingShowtimeId(showtimeId)
+                    .message("Overlaps scheduled showtime " + showtimeId)
+                    .build());
+            }
+        }
+
+        // Against each other: per screen in start order, each slot only has to be compared
+        // with the latest-ending slot before it
+        Map<String, List<Integer>> slotsByScreen = IntStream.range(0, slots.size())
+            .filter(i -> slots.get(i).getEndTime().isAfter(slots.get(i).getStartTime()))
+            .boxed()
+            .collect(Collectors.groupingBy(i -> slots.get(i).getTheaterId() + ":" + slots.get(i).getScreenNumber()));
+        for (List<Integer> screenSlots : slotsByScreen.values()) {
+            screenSlots.sort(Comparator.comparing(i -> slots.get(i).getStartTime()));
+            int latest = screenSlots.get(0);
+            for (int i : screenSlots.subList(1, screenSlots.size())) {
+                if (slots.get(i).getStartTime().isBefore(slots.get(latest).getEndTime())) {
+                    conflicts.add(ScheduleConflict.builder()
+                        .index(i)
+                        .conflictingIndex(latest)
+                        .message("Overlaps showtime at index " + latest + " in the same schedule")
+                        .build());
+                }
+                if (slots.get(i).getEndTime().isAfter(slots.get(latest).getEndTime())) {
+                    latest = i;
+                }
+            }
+        }
+
+        conflicts.sort(Comparator.comparingInt(ScheduleConflict::getIndex));
+        return ScheduleValidationResponse.builder()
+            .valid(conflicts.isEmpty())
+            .slotCount(slots.size())
+            .conflicts(conflicts)
+            .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getShowtimeCountByMovie(Long movieId) {
-        log.info("Getting showtime count for movie: {}", movieId);
-        return showtimeRepository.countByMovieIdAndStatus(movieId, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Getting showtime count for movie: {}", movieId);
+        return showtimeRepository.countByMovieIdAndStatus(movieId, ShowStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getShowtimeCountByTheater(Long theaterId) {
-        log.info("Getting showtime count for theater: {}", theaterId);
-        return showtimeRepository.countByTheaterIdAndStatus(theaterId, Showtime.ShowStatus.ACTIVE);
+        log.info(SampledLogFilter.SAMPLED, "Getting showtime count for theater: {}", theaterId);
+        return showtimeRepository.countByTheaterIdAndStatus(theaterId, ShowStatus.ACTIVE);
     }
 }
\ No newline at end of file
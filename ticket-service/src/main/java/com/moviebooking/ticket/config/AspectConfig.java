@@ -0,0 +1,28 @@
+package com.moviebooking.ticket.config;
+
+import com.moviebooking.common.config.MethodMetricsAspect;
+import com.moviebooking.common.config.OptimisticLockRetryAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// The shared aspects from the common module, with this service's settings
+@Configuration
+public class AspectConfig {
+
+    @Bean
+    public MethodMetricsAspect methodMetricsAspect(MeterRegistry meterRegistry) {
+        return new MethodMetricsAspect(meterRegistry);
+    }
+
+    @Bean
+    public OptimisticLockRetryAspect optimisticLockRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${ticket.optimistic-lock.retry.enabled:false}") boolean retryEnabled,
+            @Value("${ticket.optimistic-lock.retry.max-attempts:3}") int maxAttempts,
+            @Value("${ticket.optimistic-lock.retry.backoff-millis:20}") long backoffMillis,
+            @Value("${ticket.optimistic-lock.retry.max-backoff-millis:200}") long maxBackoffMillis) {
+        return new OptimisticLockRetryAspect(meterRegistry, retryEnabled, maxAttempts, backoffMillis, maxBackoffMillis);
+    }
+}
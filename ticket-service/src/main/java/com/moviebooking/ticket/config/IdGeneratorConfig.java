@@ -0,0 +1,28 @@
+package com.moviebooking.ticket.config;
+
+import com.moviebooking.common.service.IdGenerator;
+import com.moviebooking.common.service.ReferenceGenerator;
+import com.moviebooking.common.service.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // Every instance writing to the same database needs its own node id. There is no default:
+    // two instances left on the same one would hand out the same references.
+    @Bean
+    public IdGenerator idGenerator(@Value("${ticket.id.node-id:#{null}}") Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("ticket.id.node-id is not set; give each instance writing to the same "
+                    + "database its own node id between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID);
+        }
+        return new SnowflakeIdGenerator(nodeId);
+    }
+
+    @Bean
+    public ReferenceGenerator referenceGenerator(IdGenerator idGenerator) {
+        return new ReferenceGenerator(idGenerator, "TKT");
+    }
+}
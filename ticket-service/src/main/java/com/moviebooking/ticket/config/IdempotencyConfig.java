@@ -0,0 +1,43 @@
+package com.moviebooking.ticket.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebooking.common.config.IdempotencyRequestBodyAdvice;
+import com.moviebooking.common.repository.IdempotencyRecordRepository;
+import com.moviebooking.common.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// The shared IdempotencyStore with this service's settings, the advice that records request
+// bodies for it, and the purge of its expired keys
+@Configuration
+public class IdempotencyConfig {
+
+    private final IdempotencyStore idempotencyStore;
+
+    public IdempotencyConfig(IdempotencyRecordRepository recordRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${ticket.idempotency.ttl-hours:24}") long ttlHours,
+                             @Value("${ticket.idempotency.in-flight-timeout-seconds:60}") long inFlightTimeoutSeconds,
+                             @Value("${ticket.idempotency.max-entries:100000}") long maxEntries,
+                             @Value("${ticket.idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyStore = new IdempotencyStore(recordRepository, objectMapper,
+                ttlHours, inFlightTimeoutSeconds, maxEntries, persistent);
+    }
+
+    @Bean
+    public IdempotencyStore idempotencyStore() {
+        return idempotencyStore;
+    }
+
+    @Bean
+    public IdempotencyRequestBodyAdvice idempotencyRequestBodyAdvice() {
+        return new IdempotencyRequestBodyAdvice();
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredIdempotencyKeys() {
+        idempotencyStore.purgeExpiredRecords();
+    }
+}
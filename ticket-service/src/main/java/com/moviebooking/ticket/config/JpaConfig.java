@@ -1,14 +1,20 @@
 package com.moviebooking.ticket.config;
 
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.Optional;
 
+// The common module's idempotency_keys entity and repository sit outside this service's
+// package, so both scans list it next to the service's own
 @Configuration
+@EntityScan(basePackages = {"com.moviebooking.ticket.entity", "com.moviebooking.common.entity"})
+@EnableJpaRepositories(basePackages = {"com.moviebooking.ticket.repository", "com.moviebooking.common.repository"})
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 @EnableScheduling
 public class JpaConfig {
@@ -0,0 +1,17 @@
+package com.moviebooking.ticket.config;
+
+import com.moviebooking.ticket.service.HashedTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TimingWheelConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public HashedTimingWheel timingWheel(
+            @Value("${ticket.timing-wheel.tick-millis:100}") long tickMillis,
+            @Value("${ticket.timing-wheel.size:512}") int wheelSize) {
+        return new HashedTimingWheel("ticket-timing-wheel", tickMillis, wheelSize);
+    }
+}
@@ -0,0 +1,18 @@
+package com.moviebooking.ticket.config;
+
+import com.moviebooking.common.config.VirtualThreadConfigSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+// Virtual threads for this service, on with ticket.threads.virtual.enabled; the beans come
+// from VirtualThreadConfigSupport
+@Configuration
+@ConditionalOnProperty(name = "ticket.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig extends VirtualThreadConfigSupport {
+
+    public VirtualThreadConfig(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                               @Value("${ticket.threads.virtual.pinned-threshold-millis:20}") long pinnedThresholdMillis) {
+        super(poolSize, pinnedThresholdMillis);
+    }
+}
@@ -0,0 +1,58 @@
+package com.moviebooking.ticket.controller;
+
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.ticket.dto.SeatHold;
+import com.moviebooking.ticket.dto.SeatHoldRequest;
+import com.moviebooking.ticket.service.SeatHoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/tickets/holds")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+@CrossOrigin(origins = "*")
+public class SeatHoldController {
+
+    private final SeatHoldService seatHoldService;
+
+    @PostMapping
+    public ResponseEntity<SeatHold> holdSeats(@Valid @RequestBody SeatHoldRequest request) {
+        log.info("Holding seats for showtime: {}", request.getShowtimeId());
+        SeatHold hold = seatHoldService.holdSeats(request);
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{holdId}")
+    public ResponseEntity<SeatHold> getHold(@PathVariable @NotBlank String holdId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching seat hold: {}", holdId);
+        Optional<SeatHold> hold = seatHoldService.getHold(holdId);
+        return hold.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable @NotBlank String holdId) {
+        log.info("Releasing seat hold: {}", holdId);
+        seatHoldService.releaseHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/showtime/{showtimeId}/seats")
+    public ResponseEntity<List<String>> getHeldSeats(@PathVariable @NotNull Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching held seats for showtime: {}", showtimeId);
+        List<String> seats = seatHoldService.getHeldSeats(showtimeId);
+        return ResponseEntity.ok(seats);
+    }
+}
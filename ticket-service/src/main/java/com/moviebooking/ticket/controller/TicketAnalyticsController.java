@@ -0,0 +1,39 @@
+package com.moviebooking.ticket.controller;
+
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.ticket.dto.SalesGroupBy;
+import com.moviebooking.ticket.dto.SalesReport;
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.service.TicketAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/tickets/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+@CrossOrigin(origins = "*")
+public class TicketAnalyticsController {
+
+    private final TicketAnalyticsService ticketAnalyticsService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReport> getSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NONE") SalesGroupBy groupBy,
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) Long theaterId,
+            @RequestParam(required = false) Ticket.SeatType seatType) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket sales between {} and {} grouped by {}", from, to, groupBy);
+        SalesReport report = ticketAnalyticsService.getSales(from, to, groupBy, movieId, theaterId, seatType);
+        return ResponseEntity.ok(report);
+    }
+}
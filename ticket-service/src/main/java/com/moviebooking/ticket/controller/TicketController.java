@@ -1,5 +1,10 @@
 package com.moviebooking.ticket.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.common.dto.CursorPage;
+import com.moviebooking.common.service.IdempotencyStore;
+import com.moviebooking.ticket.dto.TicketSummary;
 import com.moviebooking.ticket.entity.Ticket;
 import com.moviebooking.ticket.service.TicketService;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +19,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -29,20 +35,35 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class TicketController {
 
+    private static final TypeReference<Ticket> TICKET = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Ticket>> TICKETS = new TypeReference<>() {
+    };
+
     private final TicketService ticketService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<Ticket> createTicket(@Valid @RequestBody Ticket ticket) {
+    public ResponseEntity<Ticket> createTicket(@Valid @RequestBody Ticket ticket,
+                                               @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Creating ticket for showtime: {}", ticket.getShowtimeId());
-        Ticket createdTicket = ticketService.createTicket(ticket);
-        return new ResponseEntity<>(createdTicket, HttpStatus.CREATED);
+        return idempotencyStore.execute("tickets", idempotencyKey, null, TICKET, () -> {
+            Ticket createdTicket = ticketService.createTicket(ticket);
+            return new ResponseEntity<>(createdTicket, HttpStatus.CREATED);
+        });
     }
 
     @PostMapping("/bulk")
-    public ResponseEntity<List<Ticket>> createMultipleTickets(@Valid @RequestBody List<Ticket> tickets) {
+    public ResponseEntity<List<Ticket>> createMultipleTickets(@Valid @RequestBody List<Ticket> tickets,
+                                                              @RequestParam(required = false) String holdId,
+                                                              @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Creating {} tickets", tickets.size());
-        List<Ticket> createdTickets = ticketService.createMultipleTickets(tickets);
-        return new ResponseEntity<>(createdTickets, HttpStatus.CREATED);
+        return idempotencyStore.execute("tickets-bulk", idempotencyKey, holdId, TICKETS, () -> {
+            List<Ticket> createdTickets = holdId != null
+                    ? ticketService.createMultipleTickets(tickets, holdId)
+                    : ticketService.createMultipleTickets(tickets);
+            return new ResponseEntity<>(createdTickets, HttpStatus.CREATED);
+        });
     }
 
     @PutMapping("/{id}")
@@ -54,7 +75,7 @@ public class TicketController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
-        log.info("Fetching ticket with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket with id: {}", id);
         Optional<Ticket> ticket = ticketService.getTicketById(id);
         return ticket.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
@@ -62,7 +83,7 @@ public class TicketController {
 
     @GetMapping("/number/{ticketNumber}")
     public ResponseEntity<Ticket> getTicketByTicketNumber(@PathVariable @NotBlank String ticketNumber) {
-        log.info("Fetching ticket with number: {}", ticketNumber);
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket with number: {}", ticketNumber);
         Optional<Ticket> ticket = ticketService.getTicketByTicketNumber(ticketNumber);
         return ticket.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
@@ -70,49 +91,63 @@ public class TicketController {
 
     @GetMapping("/booking/{bookingId}")
     public ResponseEntity<List<Ticket>> getTicketsByBooking(@PathVariable @NotNull Long bookingId) {
-        log.info("Fetching tickets for booking: {}", bookingId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for booking: {}", bookingId);
         List<Ticket> tickets = ticketService.getTicketsByBooking(bookingId);
         return ResponseEntity.ok(tickets);
     }
 
+    @GetMapping("/booking/{bookingId}/summary")
+    public ResponseEntity<List<TicketSummary>> getTicketSummariesByBooking(@PathVariable @NotNull Long bookingId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket summaries for booking: {}", bookingId);
+        List<TicketSummary> tickets = ticketService.getTicketSummariesByBooking(bookingId);
+        return ResponseEntity.ok(tickets);
+    }
+
     @GetMapping("/showtime/{showtimeId}")
     public ResponseEntity<List<Ticket>> getTicketsByShowtime(@PathVariable @NotNull Long showtimeId) {
-        log.info("Fetching tickets for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for showtime: {}", showtimeId);
         List<Ticket> tickets = ticketService.getTicketsByShowtime(showtimeId);
         return ResponseEntity.ok(tickets);
     }
 
+    @GetMapping("/showtime/{showtimeId}/summary")
+    public ResponseEntity<List<TicketSummary>> getTicketSummariesByShowtime(@PathVariable @NotNull Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket summaries for showtime: {}", showtimeId);
+        List<TicketSummary> tickets = ticketService.getTicketSummariesByShowtime(showtimeId);
+        return ResponseEntity.ok(tickets);
+    }
+
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<List<Ticket>> getTicketsByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Fetching tickets for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for movie: {}", movieId);
         List<Ticket> tickets = ticketService.getTicketsByMovie(movieId);
         return ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/theater/{theaterId}")
     public ResponseEntity<List<Ticket>> getTicketsByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Fetching tickets for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for theater: {}", theaterId);
         List<Ticket> tickets = ticketService.getTicketsByTheater(theaterId);
         return ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/customer/email/{email}")
     public ResponseEntity<List<Ticket>> getTicketsByCustomerEmail(@PathVariable @NotBlank String email) {
-        log.info("Fetching tickets for customer email: {}", email);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer email: {}", email);
         List<Ticket> tickets = ticketService.getTicketsByCustomerEmail(email);
         return ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/customer/phone/{phone}")
     public ResponseEntity<List<Ticket>> getTicketsByCustomerPhone(@PathVariable @NotBlank String phone) {
-        log.info("Fetching tickets for customer phone: {}", phone);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer phone: {}", phone);
         List<Ticket> tickets = ticketService.getTicketsByCustomerPhone(phone);
         return ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Ticket>> getTicketsByStatus(@PathVariable Ticket.TicketStatus status) {
-        log.info("Fetching tickets with status: {}", status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets with status: {}", status);
         List<Ticket> tickets = ticketService.getTicketsByStatus(status);
         return ResponseEntity.ok(tickets);
     }
@@ -122,17 +157,27 @@ public class TicketController {
             @PathVariable Ticket.TicketStatus status,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.info("Fetching paginated tickets with status: {} - page: {}, size: {}", status, page, size);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated tickets with status: {} - page: {}, size: {}", status, page, size);
         Pageable pageable = PageRequest.of(page, size);
         Page<Ticket> tickets = ticketService.getTicketsByStatusPaginated(status, pageable);
         return ResponseEntity.ok(tickets);
     }
 
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<CursorPage<Ticket>> getTicketsByStatusAfter(
+            @PathVariable Ticket.TicketStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets with status: {} after cursor: {}, size: {}", status, cursor, size);
+        CursorPage<Ticket> tickets = ticketService.getTicketsByStatusAfter(status, cursor, size);
+        return ResponseEntity.ok(tickets);
+    }
+
     @GetMapping("/customer/{email}/status/{status}")
     public ResponseEntity<List<Ticket>> getTicketsByCustomerEmailAndStatus(
             @PathVariable @NotBlank String email,
             @PathVariable Ticket.TicketStatus status) {
-        log.info("Fetching tickets for customer: {} with status: {}", email, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer: {} with status: {}", email, status);
         List<Ticket> tickets = ticketService.getTicketsByCustomerEmailAndStatus(email, status);
         return ResponseEntity.ok(tickets);
     }
@@ -141,7 +186,7 @@ public class TicketController {
     public ResponseEntity<List<Ticket>> getTicketsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching tickets between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets between {} and {}", startDate, endDate);
         List<Ticket> tickets = ticketService.getTicketsByDateRange(startDate, endDate);
         return ResponseEntity.ok(tickets);
     }
@@ -151,7 +196,7 @@ public class TicketController {
             @PathVariable @NotNull Long movieId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching tickets for movie: {} between {} and {}", movieId, startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for movie: {} between {} and {}", movieId, startDate, endDate);
         List<Ticket> tickets = ticketService.getTicketsByMovieAndDateRange(movieId, startDate, endDate);
         return ResponseEntity.ok(tickets);
     }
@@ -161,14 +206,14 @@ public class TicketController {
             @PathVariable @NotNull Long theaterId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        log.info("Fetching tickets for theater: {} between {} and {}", theaterId, startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for theater: {} between {} and {}", theaterId, startDate, endDate);
         List<Ticket> tickets = ticketService.getTicketsByTheaterAndDateRange(theaterId, startDate, endDate);
         return ResponseEntity.ok(tickets);
     }
 
     @GetMapping("/seat-type/{seatType}")
     public ResponseEntity<List<Ticket>> getTicketsBySeatType(@PathVariable Ticket.SeatType seatType) {
-        log.info("Fetching tickets for seat type: {}", seatType);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for seat type: {}", seatType);
         List<Ticket> tickets = ticketService.getTicketsBySeatType(seatType);
         return ResponseEntity.ok(tickets);
     }
@@ -177,11 +222,18 @@ public class TicketController {
     public ResponseEntity<Boolean> isSeatAvailable(
             @RequestParam @NotNull Long showtimeId,
             @RequestParam @NotBlank String seatNumber) {
-        log.info("Checking seat availability for showtime: {}, seat: {}", showtimeId, seatNumber);
+        log.info(SampledLogFilter.SAMPLED, "Checking seat availability for showtime: {}, seat: {}", showtimeId, seatNumber);
         boolean available = ticketService.isSeatAvailable(showtimeId, seatNumber);
         return ResponseEntity.ok(available);
     }
 
+    @GetMapping("/showtime/{showtimeId}/occupied-seats")
+    public ResponseEntity<List<String>> getOccupiedSeats(@PathVariable @NotNull Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching occupied seats for showtime: {}", showtimeId);
+        List<String> seats = ticketService.getOccupiedSeats(showtimeId);
+        return ResponseEntity.ok(seats);
+    }
+
     @PatchMapping("/{id}/use")
     public ResponseEntity<String> markTicketAsUsed(@PathVariable Long id) {
         log.info("Marking ticket as used: {}", id);
@@ -219,42 +271,42 @@ public class TicketController {
 
     @GetMapping("/validate/{ticketNumber}")
     public ResponseEntity<Boolean> validateTicket(@PathVariable @NotBlank String ticketNumber) {
-        log.info("Validating ticket: {}", ticketNumber);
+        log.info(SampledLogFilter.SAMPLED, "Validating ticket: {}", ticketNumber);
         boolean valid = ticketService.validateTicket(ticketNumber);
         return ResponseEntity.ok(valid);
     }
 
     @GetMapping("/movie/{movieId}/count")
     public ResponseEntity<Long> getTicketCountByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting ticket count for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for movie: {}", movieId);
         Long count = ticketService.getTicketCountByMovie(movieId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/theater/{theaterId}/count")
     public ResponseEntity<Long> getTicketCountByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting ticket count for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for theater: {}", theaterId);
         Long count = ticketService.getTicketCountByTheater(theaterId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/showtime/{showtimeId}/count")
     public ResponseEntity<Long> getTicketCountByShowtime(@PathVariable @NotNull Long showtimeId) {
-        log.info("Getting ticket count for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for showtime: {}", showtimeId);
         Long count = ticketService.getTicketCountByShowtime(showtimeId);
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/movie/{movieId}/revenue")
     public ResponseEntity<Double> getRevenueByMovie(@PathVariable @NotNull Long movieId) {
-        log.info("Getting revenue for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for movie: {}", movieId);
         Double revenue = ticketService.getRevenueByMovie(movieId);
         return ResponseEntity.ok(revenue);
     }
 
     @GetMapping("/theater/{theaterId}/revenue")
     public ResponseEntity<Double> getRevenueByTheater(@PathVariable @NotNull Long theaterId) {
-        log.info("Getting revenue for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for theater: {}", theaterId);
         Double revenue = ticketService.getRevenueByTheater(theaterId);
         return ResponseEntity.ok(revenue);
     }
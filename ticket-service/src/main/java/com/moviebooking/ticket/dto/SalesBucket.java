@@ -0,0 +1,25 @@
+package com.moviebooking.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBucket {
+
+    private LocalDateTime start;
+
+    private long ticketsSold;
+
+    // Tickets cancelled or refunded during the bucket, whenever they were sold
+    private long ticketsReturned;
+
+    // Sales minus returns
+    private double netRevenue;
+}
@@ -0,0 +1,5 @@
+package com.moviebooking.ticket.dto;
+
+public enum SalesGroupBy {
+    NONE, MOVIE, THEATER, SEAT_TYPE
+}
@@ -0,0 +1,26 @@
+package com.moviebooking.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReport {
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private int bucketMinutes;
+
+    private SalesGroupBy groupBy;
+
+    private List<SalesSeries> series;
+}
@@ -0,0 +1,26 @@
+package com.moviebooking.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeries {
+
+    // Movie id, theater id or seat type, depending on the grouping; "all" when ungrouped
+    private String group;
+
+    private long ticketsSold;
+
+    private long ticketsReturned;
+
+    private double netRevenue;
+
+    private List<SalesBucket> buckets;
+}
@@ -0,0 +1,22 @@
+package com.moviebooking.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHold {
+    private String holdId;
+    private Long showtimeId;
+    private List<String> seatNumbers;
+    private String customerEmail;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,25 @@
+package com.moviebooking.ticket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRequest {
+
+    @NotNull
+    private Long showtimeId;
+
+    @NotEmpty
+    private List<@NotBlank String> seatNumbers;
+
+    @NotBlank
+    private String customerEmail;
+}
@@ -0,0 +1,27 @@
+package com.moviebooking.ticket.dto;
+
+import com.moviebooking.ticket.entity.Ticket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Ticket listing without customer details, QR code or barcode. Filled by constructor
+// expressions in TicketRepository, which depend on the field order below.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSummary {
+    private Long id;
+    private String ticketNumber;
+    private Long bookingId;
+    private Long showtimeId;
+    private String seatNumber;
+    private Ticket.SeatType seatType;
+    private Double price;
+    private Ticket.TicketStatus status;
+    private LocalDateTime showDateTime;
+}
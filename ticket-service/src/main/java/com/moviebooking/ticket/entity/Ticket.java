@@ -1,5 +1,6 @@
 package com.moviebooking.ticket.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+    @Index(name = "idx_tickets_showtime_status", columnList = "showtimeId, status"),
+    @Index(name = "idx_tickets_status_show_date", columnList = "status, showDateTime, id"),
+    @Index(name = "idx_tickets_status_valid_until", columnList = "status, validUntil")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +41,12 @@ public class Ticket {
     @Column(nullable = false)
     private String seatNumber;
 
+    // "<showtimeId>:<SEAT>" while the ticket holds its seat, cleared once it is released.
+    // The unique index therefore only covers live tickets.
+    @JsonIgnore
+    @Column(unique = true)
+    private String seatClaim;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SeatType seatType;
@@ -77,6 +88,9 @@ public class Ticket {
     @Column
     private LocalDateTime updatedAt;
 
+    @Version
+    private long version;
+
     // Helper methods
     public boolean isExpired() {
         return validUntil != null && LocalDateTime.now().isAfter(validUntil);
@@ -93,6 +107,13 @@ public class Ticket {
 
     public void cancel() {
         this.status = TicketStatus.CANCELLED;
+        this.seatClaim = null;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void refund() {
+        this.status = TicketStatus.REFUNDED;
+        this.seatClaim = null;
         this.updatedAt = LocalDateTime.now();
     }
 
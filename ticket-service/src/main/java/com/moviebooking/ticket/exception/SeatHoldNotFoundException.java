@@ -0,0 +1,12 @@
+package com.moviebooking.ticket.exception;
+
+public class SeatHoldNotFoundException extends RuntimeException {
+
+    public SeatHoldNotFoundException(String message) {
+        super(message);
+    }
+
+    public SeatHoldNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
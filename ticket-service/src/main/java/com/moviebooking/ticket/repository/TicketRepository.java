@@ -1,14 +1,17 @@
 package com.moviebooking.ticket.repository;
 
+import com.moviebooking.ticket.dto.TicketSummary;
 import com.moviebooking.ticket.entity.Ticket;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,16 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     List<Ticket> findByShowtimeId(Long showtimeId);
 
+    @Query("SELECT new com.moviebooking.ticket.dto.TicketSummary(t.id, t.ticketNumber, t.bookingId, t.showtimeId, " +
+           "t.seatNumber, t.seatType, t.price, t.status, t.showDateTime) " +
+           "FROM Ticket t WHERE t.bookingId = :bookingId ORDER BY t.seatNumber")
+    List<TicketSummary> findSummariesByBookingId(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT new com.moviebooking.ticket.dto.TicketSummary(t.id, t.ticketNumber, t.bookingId, t.showtimeId, " +
+           "t.seatNumber, t.seatType, t.price, t.status, t.showDateTime) " +
+           "FROM Ticket t WHERE t.showtimeId = :showtimeId ORDER BY t.seatNumber")
+    List<TicketSummary> findSummariesByShowtimeId(@Param("showtimeId") Long showtimeId);
+
     List<Ticket> findByMovieId(Long movieId);
 
     List<Ticket> findByTheaterId(Long theaterId);
@@ -54,14 +67,48 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.showtimeId = :showtimeId AND t.seatNumber = :seatNumber")
     Optional<Ticket> findByShowtimeIdAndSeatNumber(@Param("showtimeId") Long showtimeId, @Param("seatNumber") String seatNumber);
 
+    @Query("SELECT t.seatNumber FROM Ticket t WHERE t.showtimeId = :showtimeId AND t.status NOT IN :releasedStatuses")
+    List<String> findOccupiedSeatNumbers(
+        @Param("showtimeId") Long showtimeId,
+        @Param("releasedStatuses") Collection<Ticket.TicketStatus> releasedStatuses
+    );
+
     @Query("SELECT t FROM Ticket t WHERE t.seatType = :seatType AND t.status = :status ORDER BY t.showDateTime DESC")
     List<Ticket> findBySeatTypeAndStatus(@Param("seatType") Ticket.SeatType seatType, @Param("status") Ticket.TicketStatus status);
 
-    @Query("SELECT t FROM Ticket t WHERE t.validUntil < :currentTime AND t.status = :status")
-    List<Ticket> findExpiredTickets(@Param("currentTime") LocalDateTime currentTime, @Param("status") Ticket.TicketStatus status);
+    @Query("SELECT t.id FROM Ticket t WHERE t.status = :status AND t.validUntil < :currentTime ORDER BY t.validUntil")
+    List<Long> findExpiredTicketIds(@Param("status") Ticket.TicketStatus status,
+                                    @Param("currentTime") LocalDateTime currentTime,
+                                    Pageable pageable);
+
+    @Query("SELECT t.id, t.validUntil FROM Ticket t WHERE t.status = :status " +
+           "AND t.validUntil >= :from AND t.validUntil < :to ORDER BY t.validUntil")
+    List<Object[]> findUpcomingExpiries(@Param("status") Ticket.TicketStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :expiredStatus, t.updatedAt = :currentTime, t.version = t.version + 1 " +
+           "WHERE t.id IN :ids AND t.status = :status AND t.validUntil < :currentTime")
+    int expireTickets(@Param("ids") Collection<Long> ids,
+                      @Param("status") Ticket.TicketStatus status,
+                      @Param("expiredStatus") Ticket.TicketStatus expiredStatus,
+                      @Param("currentTime") LocalDateTime currentTime);
 
     Page<Ticket> findByStatusOrderByShowDateTimeDesc(Ticket.TicketStatus status, Pageable pageable);
 
+    // Keyset pages, latest show first. Pass PageRequest.of(0, n): a List return skips the count query.
+    @Query("SELECT t FROM Ticket t WHERE t.status = :status ORDER BY t.showDateTime DESC, t.id DESC")
+    List<Ticket> findFirstPageByStatus(@Param("status") Ticket.TicketStatus status, Pageable pageable);
+
+    @Query("SELECT t FROM Ticket t WHERE t.status = :status AND (t.showDateTime < :showDateTime " +
+           "OR (t.showDateTime = :showDateTime AND t.id < :id)) ORDER BY t.showDateTime DESC, t.id DESC")
+    List<Ticket> findPageByStatusAfter(@Param("status") Ticket.TicketStatus status,
+                                       @Param("showDateTime") LocalDateTime showDateTime,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.movieId = :movieId AND t.status = :status")
     Long countByMovieIdAndStatus(@Param("movieId") Long movieId, @Param("status") Ticket.TicketStatus status);
 
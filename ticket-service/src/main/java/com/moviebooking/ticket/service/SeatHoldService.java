@@ -0,0 +1,21 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.dto.SeatHold;
+import com.moviebooking.ticket.dto.SeatHoldRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SeatHoldService {
+
+    SeatHold holdSeats(SeatHoldRequest request);
+
+    Optional<SeatHold> getHold(String holdId);
+
+    void releaseHold(String holdId);
+
+    List<String> getHeldSeats(Long showtimeId);
+
+    SeatHold consumeHold(String holdId, Long showtimeId, Collection<String> seatNumbers);
+}
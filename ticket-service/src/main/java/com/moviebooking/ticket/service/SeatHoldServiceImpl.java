@@ -0,0 +1,243 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.ticket.dto.SeatHold;
+import com.moviebooking.ticket.dto.SeatHoldRequest;
+import com.moviebooking.ticket.exception.SeatAlreadyBookedException;
+import com.moviebooking.ticket.exception.SeatHoldNotFoundException;
+import com.moviebooking.ticket.exception.TicketValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Holds live in memory only; each one has a timeout on the timing wheel that returns its
+// seats to the inventory, so nothing scans for stale holds.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private final SeatInventory seatInventory;
+    private final SeatLockManager seatLockManager;
+    private final HashedTimingWheel timingWheel;
+
+    private final ConcurrentMap<String, ActiveHold> holds = new ConcurrentHashMap<>();
+
+    @Value("${ticket.seat-hold.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${ticket.seat-hold.max-seats:10}")
+    private int maxSeatsPerHold;
+
+    @Override
+    public SeatHold holdSeats(SeatHoldRequest request) {
+        log.info("Holding {} seats for showtime: {}", request.getSeatNumbers().size(), request.getShowtimeId());
+        Long showtimeId = request.getShowtimeId();
+        List<String> seatNumbers = request.getSeatNumbers();
+
+        if (seatNumbers.size() > maxSeatsPerHold) {
+            throw new TicketValidationException("A hold can contain at most " + maxSeatsPerHold + " seats");
+        }
+        Set<String> claimKeys = new LinkedHashSet<>();
+        for (String seatNumber : seatNumbers) {
+            if (!claimKeys.add(SeatLockManager.claimKey(showtimeId, seatNumber))) {
+                throw new TicketValidationException("Seat " + seatNumber + " is requested more than once");
+            }
+        }
+
+        Runnable unlock = seatLockManager.lock(claimKeys);
+        try {
+            for (String seatNumber : seatNumbers) {
+                if (!seatInventory.isAvailable(showtimeId, seatNumber)) {
+                    throw new SeatAlreadyBookedException("Seat " + seatNumber + " is not available for this showtime");
+                }
+            }
+            seatInventory.hold(showtimeId, seatNumbers);
+
+            LocalDateTime now = LocalDateTime.now();
+            SeatHold hold = SeatHold.builder()
+                    .holdId(UUID.randomUUID().toString())
+                    .showtimeId(showtimeId)
+                    .seatNumbers(List.copyOf(seatNumbers))
+                    .customerEmail(request.getCustomerEmail())
+                    .createdAt(now)
+                    .expiresAt(now.plusSeconds(holdTtlSeconds))
+                    .build();
+            ActiveHold activeHold = new ActiveHold(hold);
+            // The timeout is in place before the hold is published, so anyone who can see the
+            // hold can cancel it. A stopped wheel (e.g. during shutdown) gives the seats back.
+            try {
+                activeHold.timeout = timingWheel.schedule(() -> expire(activeHold), holdTtlSeconds, TimeUnit.SECONDS);
+            } catch (RuntimeException e) {
+                seatInventory.releaseHold(showtimeId, seatNumbers);
+                throw e;
+            }
+            holds.put(hold.getHoldId(), activeHold);
+            if (activeHold.isClosed()) {
+                // Expired before it was published
+                holds.remove(hold.getHoldId(), activeHold);
+            }
+            return hold;
+        } finally {
+            unlock.run();
+        }
+    }
+
+    @Override
+    public Optional<SeatHold> getHold(String holdId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching seat hold: {}", holdId);
+        return Optional.ofNullable(holds.get(holdId)).map(activeHold -> activeHold.hold);
+    }
+
+    @Override
+    public void releaseHold(String holdId) {
+        log.info("Releasing seat hold: {}", holdId);
+        ActiveHold activeHold = holds.get(holdId);
+        if (activeHold == null || !activeHold.close()) {
+            throw new SeatHoldNotFoundException("Seat hold not found or expired: " + holdId);
+        }
+        holds.remove(holdId, activeHold);
+        activeHold.cancelExpiry();
+        seatInventory.releaseHold(activeHold.hold.getShowtimeId(), activeHold.hold.getSeatNumbers());
+    }
+
+    @Override
+    public List<String> getHeldSeats(Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching held seats for showtime: {}", showtimeId);
+        return seatInventory.getHeldSeats(showtimeId);
+    }
+
+    // Called by the ticket write path while it holds the seat locks. The hold is marked as
+    // being purchased and only leaves the registry once the transaction commits, by which
+    // point the purchased seats are occupied by tickets. A rollback leaves the hold and its
+    // expiry as they were, so the customer can try again.
+    @Override
+    public SeatHold consumeHold(String holdId, Long showtimeId, Collection<String> seatNumbers) {
+        log.info("Consuming seat hold: {} for showtime: {}", holdId, showtimeId);
+        ActiveHold activeHold = holds.get(holdId);
+        if (activeHold == null) {
+            throw new SeatHoldNotFoundException("Seat hold not found or expired: " + holdId);
+        }
+        SeatHold hold = activeHold.hold;
+        if (!hold.getShowtimeId().equals(showtimeId)) {
+            throw new TicketValidationException("Seat hold " + holdId + " belongs to a different showtime");
+        }
+        Set<String> heldSeats = hold.getSeatNumbers().stream()
+                .map(SeatIndexCodec::normalize)
+                .collect(Collectors.toSet());
+        for (String seatNumber : seatNumbers) {
+            if (!heldSeats.contains(SeatIndexCodec.normalize(seatNumber))) {
+                throw new TicketValidationException("Seat " + seatNumber + " is not part of hold " + holdId);
+            }
+        }
+        activeHold.startPurchase();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    holds.remove(holdId, activeHold);
+                    activeHold.cancelExpiry();
+                    seatInventory.releaseHold(hold.getShowtimeId(), hold.getSeatNumbers());
+                } else if (activeHold.endPurchase()) {
+                    expire(activeHold);
+                }
+            }
+        });
+        return hold;
+    }
+
+    // The state decides who releases the seats, so this also works before the hold is published
+    private void expire(ActiveHold activeHold) {
+        SeatHold hold = activeHold.hold;
+        if (activeHold.expire()) {
+            holds.remove(hold.getHoldId(), activeHold);
+            seatInventory.releaseHold(hold.getShowtimeId(), hold.getSeatNumbers());
+            log.info("Seat hold {} expired, released {} seats for showtime: {}",
+                    hold.getHoldId(), hold.getSeatNumbers().size(), hold.getShowtimeId());
+        }
+    }
+
+    private static final class ActiveHold {
+
+        private static final int OPEN = 0;
+        private static final int PURCHASING = 1;
+        // The timeout fired during a purchase; the hold expires if the purchase rolls back
+        private static final int EXPIRY_DUE = 2;
+        private static final int CLOSED = 3;
+
+        private final SeatHold hold;
+        private final AtomicInteger state = new AtomicInteger(OPEN);
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private ActiveHold(SeatHold hold) {
+            this.hold = hold;
+        }
+
+        private void startPurchase() {
+            if (!state.compareAndSet(OPEN, PURCHASING)) {
+                if (state.get() == CLOSED) {
+                    throw new SeatHoldNotFoundException("Seat hold not found or expired: " + hold.getHoldId());
+                }
+                throw new OptimisticLockingFailureException("Seat hold " + hold.getHoldId() + " is already being purchased");
+            }
+        }
+
+        // Returns true when the hold expired while the purchase was running
+        private boolean endPurchase() {
+            return !state.compareAndSet(PURCHASING, OPEN) && state.compareAndSet(EXPIRY_DUE, OPEN);
+        }
+
+        // Returns true when the hold is closed by this call; a hold being purchased is left to
+        // the purchase
+        private boolean expire() {
+            while (true) {
+                int current = state.get();
+                if (current == OPEN && state.compareAndSet(OPEN, CLOSED)) {
+                    return true;
+                }
+                if (current == PURCHASING && state.compareAndSet(PURCHASING, EXPIRY_DUE)) {
+                    return false;
+                }
+                if (current == EXPIRY_DUE || current == CLOSED) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean close() {
+            if (state.compareAndSet(OPEN, CLOSED)) {
+                return true;
+            }
+            if (state.get() == CLOSED) {
+                return false;
+            }
+            throw new OptimisticLockingFailureException("Seat hold " + hold.getHoldId() + " is being purchased");
+        }
+
+        private boolean isClosed() {
+            return state.get() == CLOSED;
+        }
+
+        private void cancelExpiry() {
+            timeout.cancel();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.moviebooking.ticket.service;
+
+import java.util.Locale;
+
+// Maps seat labels such as "A12" or "AB7" onto a dense bit index: one 64-bit word per row.
+// Rows are one or two letters (A..Z, AA..ZZ), seats are numbered 1..64 within a row.
+public final class SeatIndexCodec {
+
+    public static final int SEATS_PER_ROW = Long.SIZE;
+    public static final int MAX_ROWS = 26 + 26 * 26;
+    public static final int INVALID = -1;
+
+    private SeatIndexCodec() {
+    }
+
+    public static int encode(String seatNumber) {
+        if (seatNumber == null) {
+            return INVALID;
+        }
+        String label = seatNumber.trim();
+        int length = label.length();
+        int letters = 0;
+        while (letters < length && isLetter(label.charAt(letters))) {
+            letters++;
+        }
+        if (letters == 0 || letters > 2 || letters == length || length - letters > 2) {
+            return INVALID;
+        }
+
+        int row = -1;
+        for (int i = 0; i < letters; i++) {
+            row = (row + 1) * 26 + (Character.toUpperCase(label.charAt(i)) - 'A');
+        }
+
+        int seat = 0;
+        for (int i = letters; i < length; i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            seat = seat * 10 + (c - '0');
+        }
+        if (seat < 1 || seat > SEATS_PER_ROW || label.charAt(letters) == '0') {
+            return INVALID;
+        }
+        return row * SEATS_PER_ROW + (seat - 1);
+    }
+
+    public static String decode(int index) {
+        if (index < 0 || index >= MAX_ROWS * SEATS_PER_ROW) {
+            throw new IllegalArgumentException("Seat index out of range: " + index);
+        }
+        int row = index / SEATS_PER_ROW;
+        int seat = index % SEATS_PER_ROW + 1;
+        String rowLabel = row < 26
+                ? String.valueOf((char) ('A' + row))
+                : String.valueOf((char) ('A' + row / 26 - 1)) + (char) ('A' + row % 26);
+        return rowLabel + seat;
+    }
+
+    // Labels outside the codec range are still tracked, keyed the way MySQL compares them
+    public static String normalize(String seatNumber) {
+        return seatNumber.strip().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
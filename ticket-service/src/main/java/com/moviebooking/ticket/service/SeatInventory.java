@@ -0,0 +1,116 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// In-memory seat occupancy per showtime, loaded lazily from the tickets table and
+// kept current by the ticket write paths once their transaction commits.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventory {
+
+    // Tickets in these states no longer hold their seat
+    static final Set<Ticket.TicketStatus> RELEASED_STATUSES =
+            EnumSet.of(Ticket.TicketStatus.CANCELLED, Ticket.TicketStatus.REFUNDED);
+
+    private final TicketRepository ticketRepository;
+
+    private final ConcurrentMap<Long, ShowtimeSeatMap> seatMaps = new ConcurrentHashMap<>();
+
+    @Value("${ticket.seat-inventory.idle-eviction-minutes:60}")
+    private long idleEvictionMinutes;
+
+    public boolean isAvailable(Long showtimeId, String seatNumber) {
+        return seatMap(showtimeId).isAvailable(seatNumber);
+    }
+
+    public boolean isOccupied(Long showtimeId, String seatNumber) {
+        return seatMap(showtimeId).isOccupied(seatNumber);
+    }
+
+    public List<String> getOccupiedSeats(Long showtimeId) {
+        return seatMap(showtimeId).occupiedSeats();
+    }
+
+    public List<String> getHeldSeats(Long showtimeId) {
+        return seatMap(showtimeId).heldSeats();
+    }
+
+    // Holds only live in memory, so they are applied under the map entry lock to keep
+    // the idle eviction from dropping a map that is just receiving one
+    public void hold(Long showtimeId, Collection<String> seatNumbers) {
+        seatMaps.compute(showtimeId, (id, seatMap) -> {
+            ShowtimeSeatMap target = seatMap != null ? seatMap : load(id);
+            target.hold(seatNumbers);
+            return target;
+        });
+    }
+
+    public void releaseHold(Long showtimeId, Collection<String> seatNumbers) {
+        seatMaps.computeIfPresent(showtimeId, (id, seatMap) -> {
+            seatMap.releaseHold(seatNumbers);
+            return seatMap;
+        });
+    }
+
+    public void occupyAfterCommit(Long showtimeId, String seatNumber) {
+        afterCommit(() -> seatMap(showtimeId).occupy(seatNumber));
+    }
+
+    public void releaseAfterCommit(Long showtimeId, String seatNumber) {
+        afterCommit(() -> seatMap(showtimeId).release(seatNumber));
+    }
+
+    @Scheduled(fixedRate = 600000) // Run every 10 minutes
+    public void evictIdleSeatMaps() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMinutes * 60_000;
+        int before = seatMaps.size();
+        for (Long showtimeId : seatMaps.keySet()) {
+            seatMaps.computeIfPresent(showtimeId, (id, seatMap) ->
+                    seatMap.lastAccessMillis() < cutoff && !seatMap.hasHolds() ? null : seatMap);
+        }
+        if (seatMaps.size() < before) {
+            log.debug("Evicted {} idle seat maps", before - seatMaps.size());
+        }
+    }
+
+    // Mutations also go through the loader, so a commit racing with a load is applied
+    // on top of the loaded snapshot rather than dropped.
+    private ShowtimeSeatMap seatMap(Long showtimeId) {
+        return seatMaps.computeIfAbsent(showtimeId, this::load);
+    }
+
+    private ShowtimeSeatMap load(Long showtimeId) {
+        List<String> occupied = ticketRepository.findOccupiedSeatNumbers(showtimeId, RELEASED_STATUSES);
+        log.debug("Loaded seat map for showtime: {} with {} occupied seats", showtimeId, occupied.size());
+        return new ShowtimeSeatMap(occupied);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
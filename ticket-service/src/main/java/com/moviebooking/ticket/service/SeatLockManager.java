@@ -0,0 +1,74 @@
+package com.moviebooking.ticket.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Striped locks over (showtime, seat) claims. Stripes are always taken in ascending
+// order, so overlapping multi-seat requests queue up instead of deadlocking.
+@Component
+public class SeatLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    public SeatLockManager(@Value("${ticket.seat-locks.stripes:1024}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public static String claimKey(Long showtimeId, String seatNumber) {
+        return showtimeId + ":" + SeatIndexCodec.normalize(seatNumber);
+    }
+
+    // Holds the stripes until the surrounding transaction completes, so the seat
+    // inventory is updated before the next claimant is let in.
+    public void lockForTransaction(Collection<String> claimKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Seat locks require an active transaction");
+        }
+        Runnable unlock = lock(claimKeys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock.run();
+            }
+        });
+    }
+
+    public Runnable lock(Collection<String> claimKeys) {
+        int[] indexes = claimKeys.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                acquired++;
+            }
+        } catch (RuntimeException | Error e) {
+            unlock(indexes, acquired);
+            throw e;
+        }
+        return () -> unlock(indexes, indexes.length);
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripeIndex(String claimKey) {
+        int h = claimKey.hashCode();
+        h ^= h >>> 16;
+        return Math.floorMod(h, stripes.length);
+    }
+}
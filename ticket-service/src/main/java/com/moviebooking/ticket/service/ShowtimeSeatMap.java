@@ -0,0 +1,136 @@
+package com.moviebooking.ticket.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Seat bitmaps for a single showtime: seats sold as tickets, and seats under a temporary hold.
+// Labels the codec cannot map fall back to a small set.
+class ShowtimeSeatMap {
+
+    private final SeatBits occupied = new SeatBits();
+    private final SeatBits held = new SeatBits();
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    ShowtimeSeatMap(Collection<String> occupiedSeats) {
+        occupiedSeats.forEach(occupied::add);
+    }
+
+    synchronized boolean isOccupied(String seatNumber) {
+        touch();
+        return occupied.contains(seatNumber);
+    }
+
+    synchronized boolean isAvailable(String seatNumber) {
+        touch();
+        return !occupied.contains(seatNumber) && !held.contains(seatNumber);
+    }
+
+    synchronized void occupy(String seatNumber) {
+        touch();
+        occupied.add(seatNumber);
+    }
+
+    synchronized void release(String seatNumber) {
+        touch();
+        occupied.remove(seatNumber);
+    }
+
+    synchronized void hold(Collection<String> seatNumbers) {
+        touch();
+        seatNumbers.forEach(held::add);
+    }
+
+    synchronized void releaseHold(Collection<String> seatNumbers) {
+        touch();
+        seatNumbers.forEach(held::remove);
+    }
+
+    synchronized List<String> occupiedSeats() {
+        touch();
+        return occupied.labels();
+    }
+
+    synchronized List<String> heldSeats() {
+        touch();
+        return held.labels();
+    }
+
+    synchronized boolean hasHolds() {
+        return held.count > 0;
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    private void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    private static final class SeatBits {
+
+        private long[] words = new long[0];
+        private final Set<String> irregular = new HashSet<>();
+        private int count;
+
+        boolean contains(String seatNumber) {
+            int index = SeatIndexCodec.encode(seatNumber);
+            if (index == SeatIndexCodec.INVALID) {
+                return irregular.contains(SeatIndexCodec.normalize(seatNumber));
+            }
+            int word = index >>> 6;
+            return word < words.length && (words[word] & (1L << index)) != 0;
+        }
+
+        void add(String seatNumber) {
+            int index = SeatIndexCodec.encode(seatNumber);
+            if (index == SeatIndexCodec.INVALID) {
+                if (irregular.add(SeatIndexCodec.normalize(seatNumber))) {
+                    count++;
+                }
+                return;
+            }
+            int word = index >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            if ((words[word] & (1L << index)) == 0) {
+                words[word] |= 1L << index;
+                count++;
+            }
+        }
+
+        void remove(String seatNumber) {
+            int index = SeatIndexCodec.encode(seatNumber);
+            if (index == SeatIndexCodec.INVALID) {
+                if (irregular.remove(SeatIndexCodec.normalize(seatNumber))) {
+                    count--;
+                }
+                return;
+            }
+            int word = index >>> 6;
+            if (word < words.length && (words[word] & (1L << index)) != 0) {
+                words[word] &= ~(1L << index);
+                count--;
+            }
+        }
+
+        List<String> labels() {
+            List<String> seats = new ArrayList<>(count);
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    seats.add(SeatIndexCodec.decode(word * SeatIndexCodec.SEATS_PER_ROW + bit));
+                    bits &= bits - 1;
+                }
+            }
+            irregular.stream().sorted().forEach(seats::add);
+            return seats;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.dto.SalesGroupBy;
+import com.moviebooking.ticket.dto.SalesReport;
+import com.moviebooking.ticket.entity.Ticket;
+
+import java.time.LocalDateTime;
+
+public interface TicketAnalyticsService {
+
+    SalesReport getSales(LocalDateTime from, LocalDateTime to, SalesGroupBy groupBy,
+                         Long movieId, Long theaterId, Ticket.SeatType seatType);
+}
@@ -0,0 +1,30 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.ticket.dto.SalesGroupBy;
+import com.moviebooking.ticket.dto.SalesReport;
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.exception.TicketValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketAnalyticsServiceImpl implements TicketAnalyticsService {
+
+    private final TicketSalesSeries ticketSalesSeries;
+
+    @Override
+    public SalesReport getSales(LocalDateTime from, LocalDateTime to, SalesGroupBy groupBy,
+                                Long movieId, Long theaterId, Ticket.SeatType seatType) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket sales between {} and {} grouped by {}", from, to, groupBy);
+        if (!to.isAfter(from)) {
+            throw new TicketValidationException("Range end must be after its start");
+        }
+        return ticketSalesSeries.query(from, to, groupBy, movieId, theaterId, seatType);
+    }
+}
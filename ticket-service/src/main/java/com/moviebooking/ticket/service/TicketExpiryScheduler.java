@@ -0,0 +1,174 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Expires ACTIVE tickets once validUntil passes. Tickets due within the lookahead window get
+// a timeout on the timing wheel, which queues their id; the queue is flushed every second as
+// bulk UPDATEs, so the status flips within seconds. A chunked sweep over the (status,
+// validUntil) index catches whatever the wheel missed, such as tickets due while the service
+// was down. Only ids are read, so no ticket entity is ever loaded.
+@Component
+@Slf4j
+public class TicketExpiryScheduler {
+
+    private final TicketRepository ticketRepository;
+    private final HashedTimingWheel timingWheel;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkSize;
+    private final long lookaheadMillis;
+    private final int maxScheduled;
+
+    // Tickets with a timeout on the wheel, so the lookahead does not schedule them twice
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    // Tickets whose timeout has fired, waiting for the next flush
+    private final Queue<Long> due = new ConcurrentLinkedQueue<>();
+
+    public TicketExpiryScheduler(TicketRepository ticketRepository,
+                                 HashedTimingWheel timingWheel,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ticket.expiry.chunk-size:500}") int chunkSize,
+                                 @Value("${ticket.expiry.lookahead-minutes:10}") long lookaheadMinutes,
+                                 @Value("${ticket.expiry.max-scheduled:50000}") int maxScheduled) {
+        this.ticketRepository = ticketRepository;
+        this.timingWheel = timingWheel;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.lookaheadMillis = lookaheadMinutes * 60_000;
+        this.maxScheduled = maxScheduled;
+    }
+
+    // For tickets created with an expiry inside the lookahead window, e.g. bought minutes
+    // before the show; later ones are picked up by the lookahead as their time approaches
+    public void scheduleAfterCommit(Ticket ticket) {
+        Long ticketId = ticket.getId();
+        LocalDateTime validUntil = ticket.getValidUntil();
+        if (validUntil == null || Duration.between(LocalDateTime.now(), validUntil).toMillis() >= lookaheadMillis) {
+            return;
+        }
+        afterCommit(() -> schedule(ticketId, validUntil));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ticket.expiry.lookahead-interval-ms:60000}",
+               fixedDelayString = "${ticket.expiry.lookahead-interval-ms:60000}")
+    public void scheduleUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        int capacity = maxScheduled - scheduled.size();
+        if (capacity <= 0) {
+            log.warn("{} ticket expiries already scheduled, leaving the rest to the sweep", scheduled.size());
+            return;
+        }
+        List<Object[]> upcoming = ticketRepository.findUpcomingExpiries(Ticket.TicketStatus.ACTIVE,
+                now, now.plus(Duration.ofMillis(lookaheadMillis)), PageRequest.of(0, capacity));
+        for (Object[] row : upcoming) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.debug("Scheduled {} upcoming ticket expiries", upcoming.size());
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.expiry.flush-interval-ms:1000}")
+    public void flushDue() {
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        int expired = 0;
+        Long ticketId;
+        while ((ticketId = due.poll()) != null) {
+            chunk.add(ticketId);
+            if (chunk.size() >= chunkSize) {
+                expired += expireChunk(chunk);
+            }
+        }
+        expired += expireChunk(chunk);
+        if (expired > 0) {
+            log.info("Expired {} tickets", expired);
+        }
+    }
+
+    // Works through the overdue tickets a chunk at a time, each chunk in its own transaction
+    @Scheduled(fixedDelayString = "${ticket.expiry.sweep-interval-ms:300000}")
+    public int sweep() {
+        int expired = 0;
+        while (true) {
+            Integer count = writeTransaction.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = ticketRepository.findExpiredTicketIds(
+                        Ticket.TicketStatus.ACTIVE, now, PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? -1
+                        : ticketRepository.expireTickets(ids, Ticket.TicketStatus.ACTIVE, Ticket.TicketStatus.EXPIRED, now);
+            });
+            // Nothing overdue, or every id was changed by someone else in the meantime
+            if (count == null || count <= 0) {
+                break;
+            }
+            expired += count;
+        }
+        if (expired > 0) {
+            log.info("Sweep expired {} overdue tickets", expired);
+        }
+        return expired;
+    }
+
+    private void schedule(Long ticketId, LocalDateTime validUntil) {
+        if (!scheduled.add(ticketId)) {
+            return;
+        }
+        long delayMillis = Duration.between(LocalDateTime.now(), validUntil).toMillis();
+        // Tasks run on the wheel thread, so the timeout only queues the id
+        timingWheel.schedule(() -> due.add(ticketId), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private int expireChunk(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            // Tickets cancelled or used since they were scheduled are left alone by the status guard
+            Integer count = writeTransaction.execute(status -> ticketRepository.expireTickets(
+                    ids, Ticket.TicketStatus.ACTIVE, Ticket.TicketStatus.EXPIRED, LocalDateTime.now()));
+            return count != null ? count : 0;
+        } catch (RuntimeException e) {
+            // Unscheduled again below, so the lookahead or the sweep will retry them
+            log.warn("Failed to expire {} tickets: {}", ids.size(), e.getMessage());
+            return 0;
+        } finally {
+            ids.forEach(scheduled::remove);
+            ids.clear();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,246 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.dto.SalesBucket;
+import com.moviebooking.ticket.dto.SalesGroupBy;
+import com.moviebooking.ticket.dto.SalesReport;
+import com.moviebooking.ticket.dto.SalesSeries;
+import com.moviebooking.ticket.entity.Ticket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Ticket sales per fixed-width time bucket, one series per (movie, theater, seat type). Each
+// series keeps its buckets in a ring of parallel primitive arrays covering the retention
+// window, so a slot is reused, and its old bucket dropped, once the ring comes round again.
+// Fed by the ticket write paths after commit; queries never touch the tickets table.
+@Component
+@Slf4j
+public class TicketSalesSeries {
+
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int slots;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ConcurrentMap<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    public TicketSalesSeries(@Value("${ticket.analytics.bucket-minutes:5}") int bucketMinutes,
+                             @Value("${ticket.analytics.retention-hours:48}") int retentionHours) {
+        this.bucketMillis = bucketMinutes * 60_000L;
+        this.slots = Math.max(1, (int) (retentionHours * 3_600_000L / bucketMillis));
+    }
+
+    public int getBucketMinutes() {
+        return (int) (bucketMillis / 60_000);
+    }
+
+    public void recordSaleAfterCommit(Ticket ticket) {
+        SeriesKey key = SeriesKey.of(ticket);
+        long cents = toCents(ticket.getPrice());
+        afterCommit(() -> record(key, 1, 0, cents));
+    }
+
+    public void recordReturnAfterCommit(Ticket ticket) {
+        SeriesKey key = SeriesKey.of(ticket);
+        long cents = toCents(ticket.getPrice());
+        afterCommit(() -> record(key, 0, 1, -cents));
+    }
+
+    // Null filters match everything. The range is clipped to the retention window.
+    public SalesReport query(LocalDateTime from, LocalDateTime to, SalesGroupBy groupBy,
+                             Long movieId, Long theaterId, Ticket.SeatType seatType) {
+        long current = currentBucket();
+        long first = Math.max(bucketOf(from), current - slots + 1);
+        long last = Math.min(bucketOf(to), current);
+        int width = last >= first ? (int) (last - first + 1) : 0;
+
+        Map<String, Totals> groups = new TreeMap<>();
+        if (width > 0) {
+            series.forEach((key, values) -> {
+                if (key.matches(movieId, theaterId, seatType)) {
+                    values.addTo(first, groups.computeIfAbsent(key.group(groupBy), group -> new Totals(width)));
+                }
+            });
+        }
+
+        List<SalesSeries> result = new ArrayList<>(groups.size());
+        groups.forEach((group, totals) -> result.add(totals.toSeries(group, first)));
+        return SalesReport.builder()
+                .from(startOf(first))
+                .to(startOf(last + 1))
+                .bucketMinutes(getBucketMinutes())
+                .groupBy(groupBy)
+                .series(result)
+                .build();
+    }
+
+    // Ring slots age out on their own; this drops series that have gone quiet altogether
+    @Scheduled(fixedDelayString = "${ticket.analytics.eviction-interval-ms:300000}")
+    public void evictExpiredSeries() {
+        long oldest = currentBucket() - slots + 1;
+        int before = series.size();
+        for (SeriesKey key : series.keySet()) {
+            series.computeIfPresent(key, (k, values) -> values.lastBucket < oldest ? null : values);
+        }
+        if (series.size() < before) {
+            log.debug("Evicted {} idle sales series", before - series.size());
+        }
+    }
+
+    private void record(SeriesKey key, int sold, int returned, long cents) {
+        // Under the map entry lock, so eviction cannot drop a series as it is written to
+        series.compute(key, (k, values) -> {
+            Series target = values != null ? values : new Series(slots);
+            target.add(currentBucket(), sold, returned, cents);
+            return target;
+        });
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(System.currentTimeMillis(), bucketMillis);
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.atZone(zone).toInstant().toEpochMilli(), bucketMillis);
+    }
+
+    private LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(bucket * bucketMillis), zone);
+    }
+
+    private static long toCents(Double price) {
+        return price == null ? 0 : Math.round(price * 100);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record SeriesKey(Long movieId, Long theaterId, Ticket.SeatType seatType) {
+
+        static SeriesKey of(Ticket ticket) {
+            return new SeriesKey(ticket.getMovieId(), ticket.getTheaterId(), ticket.getSeatType());
+        }
+
+        boolean matches(Long movie, Long theater, Ticket.SeatType type) {
+            return (movie == null || movie.equals(movieId))
+                    && (theater == null || theater.equals(theaterId))
+                    && (type == null || type == seatType);
+        }
+
+        String group(SalesGroupBy groupBy) {
+            return switch (groupBy) {
+                case MOVIE -> String.valueOf(movieId);
+                case THEATER -> String.valueOf(theaterId);
+                case SEAT_TYPE -> String.valueOf(seatType);
+                case NONE -> "all";
+            };
+        }
+    }
+
+    private static final class Series {
+
+        // Which bucket each slot currently holds
+        private final long[] buckets;
+        private final int[] sold;
+        private final int[] returned;
+        private final long[] revenueCents;
+        private volatile long lastBucket = NO_BUCKET;
+
+        private Series(int slots) {
+            buckets = new long[slots];
+            Arrays.fill(buckets, NO_BUCKET);
+            sold = new int[slots];
+            returned = new int[slots];
+            revenueCents = new long[slots];
+        }
+
+        synchronized void add(long bucket, int soldDelta, int returnedDelta, long cents) {
+            int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+            if (buckets[slot] != bucket) {
+                buckets[slot] = bucket;
+                sold[slot] = 0;
+                returned[slot] = 0;
+                revenueCents[slot] = 0;
+            }
+            sold[slot] += soldDelta;
+            returned[slot] += returnedDelta;
+            revenueCents[slot] += cents;
+            lastBucket = Math.max(lastBucket, bucket);
+        }
+
+        synchronized void addTo(long first, Totals totals) {
+            for (int i = 0; i < totals.sold.length; i++) {
+                long bucket = first + i;
+                int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+                if (buckets[slot] == bucket) {
+                    totals.sold[i] += sold[slot];
+                    totals.returned[i] += returned[slot];
+                    totals.revenueCents[i] += revenueCents[slot];
+                }
+            }
+        }
+    }
+
+    private final class Totals {
+
+        private final long[] sold;
+        private final long[] returned;
+        private final long[] revenueCents;
+
+        private Totals(int width) {
+            sold = new long[width];
+            returned = new long[width];
+            revenueCents = new long[width];
+        }
+
+        SalesSeries toSeries(String group, long first) {
+            List<SalesBucket> points = new ArrayList<>(sold.length);
+            long totalSold = 0;
+            long totalReturned = 0;
+            long totalCents = 0;
+            for (int i = 0; i < sold.length; i++) {
+                points.add(SalesBucket.builder()
+                        .start(startOf(first + i))
+                        .ticketsSold(sold[i])
+                        .ticketsReturned(returned[i])
+                        .netRevenue(revenueCents[i] / 100.0)
+                        .build());
+                totalSold += sold[i];
+                totalReturned += returned[i];
+                totalCents += revenueCents[i];
+            }
+            return SalesSeries.builder()
+                    .group(group)
+                    .ticketsSold(totalSold)
+                    .ticketsReturned(totalReturned)
+                    .netRevenue(totalCents / 100.0)
+                    .buckets(points)
+                    .build();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.moviebooking.ticket.service;
 
+import com.moviebooking.common.dto.CursorPage;
+import com.moviebooking.ticket.dto.TicketSummary;
 import com.moviebooking.ticket.entity.Ticket;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +16,8 @@ public interface TicketService {
 
     List<Ticket> createMultipleTickets(List<Ticket> tickets);
 
+    List<Ticket> createMultipleTickets(List<Ticket> tickets, String holdId);
+
     Ticket updateTicket(Long id, Ticket ticket);
 
     Optional<Ticket> getTicketById(Long id);
@@ -24,6 +28,10 @@ public interface TicketService {
 
     List<Ticket> getTicketsByShowtime(Long showtimeId);
 
+    List<TicketSummary> getTicketSummariesByBooking(Long bookingId);
+
+    List<TicketSummary> getTicketSummariesByShowtime(Long showtimeId);
+
     List<Ticket> getTicketsByMovie(Long movieId);
 
     List<Ticket> getTicketsByTheater(Long theaterId);
@@ -46,8 +54,12 @@ public interface TicketService {
 
     Page<Ticket> getTicketsByStatusPaginated(Ticket.TicketStatus status, Pageable pageable);
 
+    CursorPage<Ticket> getTicketsByStatusAfter(Ticket.TicketStatus status, String cursor, int size);
+
     boolean isSeatAvailable(Long showtimeId, String seatNumber);
 
+    List<String> getOccupiedSeats(Long showtimeId);
+
     void markTicketAsUsed(Long ticketId);
 
     void markTicketAsUsed(String ticketNumber);
@@ -1,5 +1,11 @@
 package com.moviebooking.ticket.service;
 
+import com.moviebooking.common.config.RetryOnOptimisticLock;
+import com.moviebooking.common.config.SampledLogFilter;
+import com.moviebooking.common.dto.CursorPage;
+import com.moviebooking.common.dto.PageCursor;
+import com.moviebooking.common.service.ReferenceGenerator;
+import com.moviebooking.ticket.dto.TicketSummary;
 import com.moviebooking.ticket.entity.Ticket;
 import com.moviebooking.ticket.exception.TicketNotFoundException;
 import com.moviebooking.ticket.exception.SeatAlreadyBookedException;
@@ -7,17 +13,19 @@ import com.moviebooking.ticket.exception.TicketValidationException;
 import com.moviebooking.ticket.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -26,38 +34,66 @@ import java.util.UUID;
 public class TicketServiceImpl implements TicketService {
 
     private final TicketRepository ticketRepository;
+    private final SeatInventory seatInventory;
+    private final SeatLockManager seatLockManager;
+    private final SeatHoldService seatHoldService;
+    private final TicketSalesSeries ticketSalesSeries;
+    private final TicketExpiryScheduler ticketExpiryScheduler;
+    private final ReferenceGenerator referenceGenerator;
 
     @Override
     public Ticket createTicket(Ticket ticket) {
         log.info("Creating ticket for showtime: {}, seat: {}", ticket.getShowtimeId(), ticket.getSeatNumber());
+        return claimSeats(List.of(ticket), null).get(0);
+    }
 
-        // Check if seat is already booked
-        if (!isSeatAvailable(ticket.getShowtimeId(), ticket.getSeatNumber())) {
-            throw new SeatAlreadyBookedException("Seat " + ticket.getSeatNumber() + " is already booked for this showtime");
-        }
+    @Override
+    public List<Ticket> createMultipleTickets(List<Ticket> tickets) {
+        log.info("Creating {} tickets", tickets.size());
+        return claimSeats(tickets, null);
+    }
 
-        // Generate ticket number and codes
-        ticket.setTicketNumber(generateTicketNumber());
-        ticket.setQrCode(generateQRCode(ticket.getTicketNumber()));
-        ticket.setBarcode(generateBarcode(ticket.getTicketNumber()));
+    @Override
+    public List<Ticket> createMultipleTickets(List<Ticket> tickets, String holdId) {
+        log.info("Creating {} tickets from seat hold: {}", tickets.size(), holdId);
+        return claimSeats(tickets, holdId);
+    }
 
-        // Set validity period (usually until show start time)
-        ticket.setValidUntil(ticket.getShowDateTime());
+    // All-or-nothing: every requested seat is locked, checked and inserted in this
+    // transaction. The unique seat claim backs the locks up across instances.
+    // With a hold, the held seats count as available to this request only.
+    private List<Ticket> claimSeats(List<Ticket> tickets, String holdId) {
+        if (tickets.isEmpty()) {
+            throw new TicketValidationException("At least one ticket is required");
+        }
 
-        ticket.setCreatedAt(LocalDateTime.now());
-        ticket.setStatus(Ticket.TicketStatus.ACTIVE);
+        Set<String> claimKeys = new LinkedHashSet<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.getShowtimeId() == null || ticket.getSeatNumber() == null) {
+                throw new TicketValidationException("Showtime and seat number are required");
+            }
+            if (!claimKeys.add(SeatLockManager.claimKey(ticket.getShowtimeId(), ticket.getSeatNumber()))) {
+                throw new TicketValidationException("Seat " + ticket.getSeatNumber() + " is requested more than once");
+            }
+        }
 
-        return ticketRepository.save(ticket);
-    }
+        seatLockManager.lockForTransaction(claimKeys);
 
-    @Override
-    public List<Ticket> createMultipleTickets(List<Ticket> tickets) {
-        log.info("Creating {} tickets", tickets.size());
+        if (holdId != null) {
+            Long showtimeId = tickets.get(0).getShowtimeId();
+            if (tickets.stream().anyMatch(ticket -> !showtimeId.equals(ticket.getShowtimeId()))) {
+                throw new TicketValidationException("Tickets bought from a seat hold must share its showtime");
+            }
+            seatHoldService.consumeHold(holdId, showtimeId, tickets.stream().map(Ticket::getSeatNumber).toList());
+        }
 
         // Validate all seats are available before creating any tickets
         for (Ticket ticket : tickets) {
-            if (!isSeatAvailable(ticket.getShowtimeId(), ticket.getSeatNumber())) {
-                throw new SeatAlreadyBookedException("Seat " + ticket.getSeatNumber() + " is already booked");
+            boolean available = holdId != null
+                    ? !seatInventory.isOccupied(ticket.getShowtimeId(), ticket.getSeatNumber())
+                    : seatInventory.isAvailable(ticket.getShowtimeId(), ticket.getSeatNumber());
+            if (!available) {
+                throw new SeatAlreadyBookedException("Seat " + ticket.getSeatNumber() + " is already booked for this showtime");
             }
         }
 
@@ -66,15 +102,29 @@ public class TicketServiceImpl implements TicketService {
             ticket.setTicketNumber(generateTicketNumber());
             ticket.setQrCode(generateQRCode(ticket.getTicketNumber()));
             ticket.setBarcode(generateBarcode(ticket.getTicketNumber()));
+            // Set validity period (usually until show start time)
             ticket.setValidUntil(ticket.getShowDateTime());
+            ticket.setSeatClaim(SeatLockManager.claimKey(ticket.getShowtimeId(), ticket.getSeatNumber()));
             ticket.setCreatedAt(LocalDateTime.now());
             ticket.setStatus(Ticket.TicketStatus.ACTIVE);
         }
 
-        return ticketRepository.saveAll(tickets);
+        List<Ticket> savedTickets;
+        try {
+            savedTickets = ticketRepository.saveAllAndFlush(tickets);
+        } catch (DataIntegrityViolationException e) {
+            throw new SeatAlreadyBookedException("One or more seats were booked by another request", e);
+        }
+        savedTickets.forEach(saved -> {
+            seatInventory.occupyAfterCommit(saved.getShowtimeId(), saved.getSeatNumber());
+            ticketSalesSeries.recordSaleAfterCommit(saved);
+            ticketExpiryScheduler.scheduleAfterCommit(saved);
+        });
+        return savedTickets;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public Ticket updateTicket(Long id, Ticket ticket) {
         log.info("Updating ticket with id: {}", id);
         Ticket existingTicket = ticketRepository.findById(id)
@@ -92,119 +142,170 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional(readOnly = true)
     public Optional<Ticket> getTicketById(Long id) {
-        log.info("Fetching ticket with id: {}", id);
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket with id: {}", id);
         return ticketRepository.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Ticket> getTicketByTicketNumber(String ticketNumber) {
-        log.info("Fetching ticket with number: {}", ticketNumber);
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket with number: {}", ticketNumber);
         return ticketRepository.findByTicketNumber(ticketNumber);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByBooking(Long bookingId) {
-        log.info("Fetching tickets for booking: {}", bookingId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for booking: {}", bookingId);
         return ticketRepository.findByBookingId(bookingId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByShowtime(Long showtimeId) {
-        log.info("Fetching tickets for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for showtime: {}", showtimeId);
         return ticketRepository.findByShowtimeId(showtimeId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketSummary> getTicketSummariesByBooking(Long bookingId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket summaries for booking: {}", bookingId);
+        return ticketRepository.findSummariesByBookingId(bookingId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketSummary> getTicketSummariesByShowtime(Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching ticket summaries for showtime: {}", showtimeId);
+        return ticketRepository.findSummariesByShowtimeId(showtimeId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByMovie(Long movieId) {
-        log.info("Fetching tickets for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for movie: {}", movieId);
         return ticketRepository.findByMovieId(movieId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByTheater(Long theaterId) {
-        log.info("Fetching tickets for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for theater: {}", theaterId);
         return ticketRepository.findByTheaterId(theaterId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByCustomerEmail(String customerEmail) {
-        log.info("Fetching tickets for customer email: {}", customerEmail);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer email: {}", customerEmail);
         return ticketRepository.findByCustomerEmail(customerEmail);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByCustomerPhone(String customerPhone) {
-        log.info("Fetching tickets for customer phone: {}", customerPhone);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer phone: {}", customerPhone);
         return ticketRepository.findByCustomerPhone(customerPhone);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByStatus(Ticket.TicketStatus status) {
-        log.info("Fetching tickets with status: {}", status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets with status: {}", status);
         return ticketRepository.findByStatus(status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByCustomerEmailAndStatus(String email, Ticket.TicketStatus status) {
-        log.info("Fetching tickets for customer: {} with status: {}", email, status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for customer: {} with status: {}", email, status);
         return ticketRepository.findByCustomerEmailAndStatus(email, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching tickets between {} and {}", startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets between {} and {}", startDate, endDate);
         return ticketRepository.findByShowDateTimeBetween(startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByMovieAndDateRange(Long movieId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching tickets for movie: {} between {} and {}", movieId, startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for movie: {} between {} and {}", movieId, startDate, endDate);
         return ticketRepository.findByMovieIdAndShowDateTimeBetween(movieId, startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsByTheaterAndDateRange(Long theaterId, LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching tickets for theater: {} between {} and {}", theaterId, startDate, endDate);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for theater: {} between {} and {}", theaterId, startDate, endDate);
         return ticketRepository.findByTheaterIdAndShowDateTimeBetween(theaterId, startDate, endDate);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Ticket> getTicketsBySeatType(Ticket.SeatType seatType) {
-        log.info("Fetching tickets for seat type: {}", seatType);
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets for seat type: {}", seatType);
         return ticketRepository.findBySeatTypeAndStatus(seatType, Ticket.TicketStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Ticket> getTicketsByStatusPaginated(Ticket.TicketStatus status, Pageable pageable) {
-        log.info("Fetching paginated tickets with status: {}", status);
+        log.info(SampledLogFilter.SAMPLED, "Fetching paginated tickets with status: {}", status);
         return ticketRepository.findByStatusOrderByShowDateTimeDesc(status, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Ticket> getTicketsByStatusAfter(Ticket.TicketStatus status, String cursor, int size) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching tickets with status: {} after cursor: {}", status, cursor);
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        PageCursor after = decodeCursor(cursor);
+        List<Ticket> rows = after == null
+                ? ticketRepository.findFirstPageByStatus(status, limit)
+                : ticketRepository.findPageByStatusAfter(status, after.timestamp(), after.id(), limit);
+        boolean hasMore = rows.size() > size;
+        List<Ticket> items = hasMore ? rows.subList(0, size) : rows;
+        Ticket last = hasMore ? items.get(items.size() - 1) : null;
+        return CursorPage.<Ticket>builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(last != null ? new PageCursor(last.getShowDateTime(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new TicketValidationException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isSeatAvailable(Long showtimeId, String seatNumber) {
-        log.info("Checking seat availability for showtime: {}, seat: {}", showtimeId, seatNumber);
-        Optional<Ticket> existingTicket = ticketRepository.findByShowtimeIdAndSeatNumber(showtimeId, seatNumber);
-        return existingTicket.isEmpty() || 
-               existingTicket.get().getStatus() == Ticket.TicketStatus.CANCELLED ||
-               existingTicket.get().getStatus() == Ticket.TicketStatus.REFUNDED;
+        log.info(SampledLogFilter.SAMPLED, "Checking seat availability for showtime: {}, seat: {}", showtimeId, seatNumber);
+        return seatInventory.isAvailable(showtimeId, seatNumber);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<String> getOccupiedSeats(Long showtimeId) {
+        log.info(SampledLogFilter.SAMPLED, "Fetching occupied seats for showtime: {}", showtimeId);
+        return seatInventory.getOccupiedSeats(showtimeId);
+    }
+
+    @Override
+    @RetryOnOptimisticLock
     public void markTicketAsUsed(Long ticketId) {
         log.info("Marking ticket as used: {}", ticketId);
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -219,6 +320,7 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void markTicketAsUsed(String ticketNumber) {
         log.info("Marking ticket as used: {}", ticketNumber);
         Ticket ticket = ticketRepository.findByTicketNumber(ticketNumber)
@@ -233,60 +335,63 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void cancelTicket(Long ticketId) {
         log.info("Cancelling ticket: {}", ticketId);
         Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket not found with id: " + ticketId));
 
+        boolean returned = !SeatInventory.RELEASED_STATUSES.contains(ticket.getStatus());
         ticket.cancel();
         ticketRepository.save(ticket);
+        seatInventory.releaseAfterCommit(ticket.getShowtimeId(), ticket.getSeatNumber());
+        if (returned) {
+            ticketSalesSeries.recordReturnAfterCommit(ticket);
+        }
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void cancelTicket(String ticketNumber) {
         log.info("Cancelling ticket: {}", ticketNumber);
         Ticket ticket = ticketRepository.findByTicketNumber(ticketNumber)
             .orElseThrow(() -> new TicketNotFoundException("Ticket not found with number: " + ticketNumber));
 
+        boolean returned = !SeatInventory.RELEASED_STATUSES.contains(ticket.getStatus());
         ticket.cancel();
         ticketRepository.save(ticket);
+        seatInventory.releaseAfterCommit(ticket.getShowtimeId(), ticket.getSeatNumber());
+        if (returned) {
+            ticketSalesSeries.recordReturnAfterCommit(ticket);
+        }
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void refundTicket(Long ticketId) {
         log.info("Refunding ticket: {}", ticketId);
         Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new TicketNotFoundException("Ticket not found with id: " + ticketId));
 
-        ticket.setStatus(Ticket.TicketStatus.REFUNDED);
-        ticket.setUpdatedAt(LocalDateTime.now());
+        boolean returned = !SeatInventory.RELEASED_STATUSES.contains(ticket.getStatus());
+        ticket.refund();
         ticketRepository.save(ticket);
+        seatInventory.releaseAfterCommit(ticket.getShowtimeId(), ticket.getSeatNumber());
+        if (returned) {
+            ticketSalesSeries.recordReturnAfterCommit(ticket);
+        }
     }
 
     @Override
-    @Scheduled(fixedRate = 3600000) // Run every hour
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void expireOldTickets() {
-        log.info("Running scheduled task to expire old tickets");
-        LocalDateTime currentTime = LocalDateTime.now();
-        List<Ticket> expiredTickets = ticketRepository.findExpiredTickets(currentTime, Ticket.TicketStatus.ACTIVE);
-
-        for (Ticket ticket : expiredTickets) {
-            ticket.setStatus(Ticket.TicketStatus.EXPIRED);
-            ticket.setUpdatedAt(currentTime);
-        }
-
-        if (!expiredTickets.isEmpty()) {
-            ticketRepository.saveAll(expiredTickets);
-            log.info("Expired {} tickets", expiredTickets.size());
-        }
+        log.info("Expiring overdue tickets");
+        ticketExpiryScheduler.sweep();
     }
 
     @Override
     public String generateTicketNumber() {
-        String prefix = "TKT";
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return prefix + "-" + timestamp + "-" + uuid;
+        return referenceGenerator.next();
     }
 
     @Override
@@ -304,7 +409,7 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional(readOnly = true)
     public boolean validateTicket(String ticketNumber) {
-        log.info("Validating ticket: {}", ticketNumber);
+        log.info(SampledLogFilter.SAMPLED, "Validating ticket: {}", ticketNumber);
         Optional<Ticket> ticketOpt = ticketRepository.findByTicketNumber(ticketNumber);
 
         if (ticketOpt.isEmpty()) {
@@ -318,28 +423,28 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional(readOnly = true)
     public Long getTicketCountByMovie(Long movieId) {
-        log.info("Getting ticket count for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for movie: {}", movieId);
         return ticketRepository.countByMovieIdAndStatus(movieId, Ticket.TicketStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getTicketCountByTheater(Long theaterId) {
-        log.info("Getting ticket count for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for theater: {}", theaterId);
         return ticketRepository.countByTheaterIdAndStatus(theaterId, Ticket.TicketStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getTicketCountByShowtime(Long showtimeId) {
-        log.info("Getting ticket count for showtime: {}", showtimeId);
+        log.info(SampledLogFilter.SAMPLED, "Getting ticket count for showtime: {}", showtimeId);
         return ticketRepository.countByShowtimeIdAndStatus(showtimeId, Ticket.TicketStatus.ACTIVE);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Double getRevenueByMovie(Long movieId) {
-        log.info("Getting revenue for movie: {}", movieId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for movie: {}", movieId);
         Double revenue = ticketRepository.sumPriceByMovieIdAndStatus(movieId, Ticket.TicketStatus.ACTIVE);
         return revenue != null ? revenue : 0.0;
     }
@@ -347,7 +452,7 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional(readOnly = true)
     public Double getRevenueByTheater(Long theaterId) {
-        log.info("Getting revenue for theater: {}", theaterId);
+        log.info(SampledLogFilter.SAMPLED, "Getting revenue for theater: {}", theaterId);
         Double revenue = ticketRepository.sumPriceByTheaterIdAndStatus(theaterId, Ticket.TicketStatus.ACTIVE);
         return revenue != null ? revenue : 0.0;
     }
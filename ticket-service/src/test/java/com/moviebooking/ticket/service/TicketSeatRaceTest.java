@@ -0,0 +1,165 @@
+package com.moviebooking.ticket.service;
+
+import com.moviebooking.ticket.entity.Ticket;
+import com.moviebooking.ticket.exception.SeatAlreadyBookedException;
+import com.moviebooking.ticket.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Thousands of buyers released at once against the same seats, through the full write path on
+// H2: the striped seat locks, the in-memory inventory and the unique seat claim.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class TicketSeatRaceTest {
+
+    private static final int BUYERS = 2000;
+    private static final int ROW_SEATS = 20;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Test
+    void onlyOneBuyerGetsTheSameSeats() throws InterruptedException {
+        long showtimeId = 1;
+        List<Object> outcomes = race(buyer -> order(showtimeId, buyer, "A1", "A2", "A3", "A4"));
+
+        List<List<Ticket>> winners = winners(outcomes);
+        assertEquals(1, winners.size(), "buyers that got the seats");
+        assertSeatsSoldOnce(showtimeId);
+        assertEquals(Set.of("A1", "A2", "A3", "A4"), seatsSold(showtimeId));
+    }
+
+    // Each buyer wants two neighbouring seats of one row, so every order overlaps others
+    @Test
+    void overlappingOrdersNeverShareASeat() throws InterruptedException {
+        long showtimeId = 2;
+        List<Object> outcomes = race(buyer -> {
+            int first = 1 + buyer % (ROW_SEATS - 1);
+            return order(showtimeId, buyer, "B" + first, "B" + (first + 1));
+        });
+
+        Set<String> won = new HashSet<>();
+        for (List<Ticket> tickets : winners(outcomes)) {
+            for (Ticket ticket : tickets) {
+                assertTrue(won.add(ticket.getSeatNumber()), "seat " + ticket.getSeatNumber() + " went to two buyers");
+            }
+        }
+        assertSeatsSoldOnce(showtimeId);
+        assertEquals(won, seatsSold(showtimeId));
+        assertTrue(won.size() >= ROW_SEATS / 2, "at least every other pair sells");
+    }
+
+    // The backstop for instances that do not share the in-memory locks
+    @Test
+    void databaseRejectsASecondClaimOnTheSameSeat() {
+        long showtimeId = 3;
+        Ticket first = order(showtimeId, 1, "C1").get(0);
+        ticketService.createTicket(first);
+
+        Ticket second = order(showtimeId, 2, "C1").get(0);
+        second.setTicketNumber("TKT-DUPLICATE-CLAIM");
+        second.setQrCode("qr");
+        second.setBarcode("barcode");
+        second.setStatus(Ticket.TicketStatus.ACTIVE);
+        second.setCreatedAt(LocalDateTime.now());
+        second.setSeatClaim(first.getSeatClaim());
+        assertThrows(DataIntegrityViolationException.class, () -> ticketRepository.saveAndFlush(second));
+        assertSeatsSoldOnce(showtimeId);
+    }
+
+    // Every buyer either gets all of its seats or is told they are taken
+    private List<Object> race(IntFunction<List<Ticket>> orders) throws InterruptedException {
+        AtomicReferenceArray<Object> outcomes = new AtomicReferenceArray<>(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(BUYERS);
+        for (int i = 0; i < BUYERS; i++) {
+            int buyer = i;
+            List<Ticket> order = orders.apply(buyer);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    outcomes.set(buyer, ticketService.createMultipleTickets(order));
+                } catch (Throwable e) {
+                    outcomes.set(buyer, e);
+                }
+            }, "buyer-" + buyer);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Object> results = new ArrayList<>(BUYERS);
+        for (int i = 0; i < BUYERS; i++) {
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof Throwable e && !(e instanceof SeatAlreadyBookedException)) {
+                fail("Buyer " + i + " failed with " + e, e);
+            }
+            results.add(outcome);
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<Ticket>> winners(List<Object> outcomes) {
+        return outcomes.stream()
+                .filter(List.class::isInstance)
+                .map(outcome -> (List<Ticket>) outcome)
+                .toList();
+    }
+
+    private void assertSeatsSoldOnce(long showtimeId) {
+        Map<String, Long> claims = ticketRepository.findByShowtimeId(showtimeId).stream()
+                .collect(Collectors.groupingBy(Ticket::getSeatClaim, Collectors.counting()));
+        claims.forEach((claim, rows) -> assertEquals(1, rows, "rows for seat claim " + claim));
+    }
+
+    private Set<String> seatsSold(long showtimeId) {
+        return ticketRepository.findByShowtimeId(showtimeId).stream()
+                .map(Ticket::getSeatNumber)
+                .collect(Collectors.toSet());
+    }
+
+    private static List<Ticket> order(long showtimeId, int buyer, String... seatNumbers) {
+        List<Ticket> tickets = new ArrayList<>(seatNumbers.length);
+        for (String seatNumber : seatNumbers) {
+            Ticket ticket = new Ticket();
+            ticket.setBookingId(buyer + 1L);
+            ticket.setShowtimeId(showtimeId);
+            ticket.setMovieId(1L);
+            ticket.setTheaterId(1L);
+            ticket.setSeatNumber(seatNumber);
+            ticket.setSeatType(Ticket.SeatType.REGULAR);
+            ticket.setPrice(250.0);
+            ticket.setCustomerName("Buyer " + buyer);
+            ticket.setCustomerEmail("buyer" + buyer + "@example.com");
+            ticket.setShowDateTime(LocalDateTime.now().plusDays(1));
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+}